@@ -0,0 +1,25 @@
+package com.mysite.sbb;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.Getter;
+
+// 여러 ID 를 한 번에 조회한 결과 중 하나, 없거나 볼 수 없는 ID 이면 found 가 false 이고 item 은 null
+@Getter
+public class BatchItem<T> {
+    private final Integer id;
+    private final boolean found;
+    private final T item;
+
+    public BatchItem(Integer id, T item) {
+        this.id = id;
+        this.found = item != null;
+        this.item = item;
+    }
+
+    // 요청한 ID 순서대로, 중복된 ID 는 그대로 반복
+    public static <T> List<BatchItem<T>> of(List<Integer> ids, Map<Integer, T> items) {
+        return ids.stream().map(id -> new BatchItem<>(id, items.get(id))).toList();
+    }
+}
@@ -0,0 +1,23 @@
+package com.mysite.sbb;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import lombok.Getter;
+
+// 페이지와 함께 태그별 개수를 반환
+@Getter
+public class FacetedPage<T> extends PageImpl<T> {
+    private static final long serialVersionUID = 1L;
+
+    // 태그 이름 -> 질문 수, 개수가 많은 순
+    private final Map<String, Integer> facets;
+
+    public FacetedPage(List<T> content, Pageable pageable, long total, Map<String, Integer> facets) {
+        super(content, pageable, total);
+        this.facets = facets;
+    }
+}
@@ -0,0 +1,113 @@
+package com.mysite.sbb;
+
+import java.util.Arrays;
+
+// int -> int open addressing 해시맵, 원소마다 객체를 만들지 않는 메모리 인덱스용
+public class IntIntHashMap {
+
+	private static final byte EMPTY = 0;
+	private static final byte FULL = 1;
+	private static final byte REMOVED = 2;
+
+	private int[] keys;
+	private int[] values;
+	private byte[] states;
+	private int size;
+	private int used;
+
+	public IntIntHashMap() {
+		this(16);
+	}
+
+	public IntIntHashMap(int expectedSize) {
+		int capacity = Integer.highestOneBit(Math.max(expectedSize * 2, 16) - 1) << 1;
+		this.keys = new int[capacity];
+		this.values = new int[capacity];
+		this.states = new byte[capacity];
+	}
+
+	public int get(int key, int defaultValue) {
+		int index = find(key);
+		return index < 0 ? defaultValue : this.values[index];
+	}
+
+	public boolean containsKey(int key) {
+		return find(key) >= 0;
+	}
+
+	public void put(int key, int value) {
+		int index = find(key);
+		if (index >= 0) {
+			this.values[index] = value;
+			return;
+		}
+		if ((this.used + 1) * 2 > this.keys.length) {
+			rehash(this.size + 1 > this.keys.length / 4 ? this.keys.length * 2 : this.keys.length);
+		}
+		int mask = this.keys.length - 1;
+		int i = mix(key) & mask;
+		while (this.states[i] == FULL) {
+			i = (i + 1) & mask;
+		}
+		if (this.states[i] == EMPTY) {
+			this.used++;
+		}
+		this.keys[i] = key;
+		this.values[i] = value;
+		this.states[i] = FULL;
+		this.size++;
+	}
+
+	public int remove(int key, int defaultValue) {
+		int index = find(key);
+		if (index < 0) {
+			return defaultValue;
+		}
+		this.states[index] = REMOVED;
+		this.size--;
+		return this.values[index];
+	}
+
+	public int size() {
+		return this.size;
+	}
+
+	public void clear() {
+		Arrays.fill(this.states, EMPTY);
+		this.size = 0;
+		this.used = 0;
+	}
+
+	private int find(int key) {
+		int mask = this.keys.length - 1;
+		int i = mix(key) & mask;
+		while (this.states[i] != EMPTY) {
+			if (this.states[i] == FULL && this.keys[i] == key) {
+				return i;
+			}
+			i = (i + 1) & mask;
+		}
+		return -1;
+	}
+
+	private void rehash(int capacity) {
+		int[] oldKeys = this.keys;
+		int[] oldValues = this.values;
+		byte[] oldStates = this.states;
+		this.keys = new int[capacity];
+		this.values = new int[capacity];
+		this.states = new byte[capacity];
+		this.size = 0;
+		this.used = 0;
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldStates[i] == FULL) {
+				put(oldKeys[i], oldValues[i]);
+			}
+		}
+	}
+
+	private static int mix(int key) {
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+}
@@ -0,0 +1,49 @@
+package com.mysite.sbb;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+// keyset 페이지네이션의 위치, "정렬키~id" 형태의 문자열로 주고받는다
+public record KeysetCursor(String key, int id) {
+
+	private static final char SEPARATOR = '~';
+
+	public static KeysetCursor of(Object key, Integer id) {
+		return new KeysetCursor(String.valueOf(key), id);
+	}
+
+	public static KeysetCursor parse(String cursor) {
+		int index = cursor.lastIndexOf(SEPARATOR);
+		if (index < 0) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid cursor");
+		}
+		try {
+			return new KeysetCursor(cursor.substring(0, index), Integer.parseInt(cursor.substring(index + 1)));
+		} catch (NumberFormatException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid cursor");
+		}
+	}
+
+	public LocalDateTime dateKey() {
+		try {
+			return LocalDateTime.parse(this.key);
+		} catch (DateTimeParseException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid cursor");
+		}
+	}
+
+	public int intKey() {
+		try {
+			return Integer.parseInt(this.key);
+		} catch (NumberFormatException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid cursor");
+		}
+	}
+
+	public String encode() {
+		return this.key + SEPARATOR + this.id;
+	}
+}
@@ -0,0 +1,32 @@
+package com.mysite.sbb;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import lombok.Getter;
+
+@Getter
+public class KeysetPage<T> {
+    private final List<T> content;
+    // 다음 페이지를 요청할 때 cursor 로 넘길 값, 마지막 페이지이면 null
+    private final String next;
+
+    public KeysetPage(List<T> content, String next) {
+        this.content = content;
+        this.next = next;
+    }
+
+    // rows 는 size + 1 개까지 조회한 결과, 남는 행이 있으면 다음 페이지가 있다
+    public static <T> KeysetPage<T> of(List<T> rows, int size, Function<T, KeysetCursor> cursor) {
+        if (rows.size() <= size) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<T> content = new ArrayList<>(rows.subList(0, size));
+        return new KeysetPage<>(content, cursor.apply(content.get(size - 1)).encode());
+    }
+
+    public <R> KeysetPage<R> map(Function<T, R> mapper) {
+        return new KeysetPage<>(this.content.stream().map(mapper).toList(), this.next);
+    }
+}
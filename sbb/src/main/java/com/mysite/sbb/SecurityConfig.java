@@ -1,5 +1,7 @@
 package com.mysite.sbb;
 
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -22,6 +24,9 @@ public class SecurityConfig {
 	public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
 		http
 				.authorizeHttpRequests((authorize) -> authorize
+						// health 는 로드 밸런서 probe 용으로 열어 두고 metrics, admission 등 나머지 actuator 는 관리자만
+						.requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+						.requestMatchers(EndpointRequest.toAnyEndpoint()).hasRole("ADMIN")
 						.requestMatchers(new AntPathRequestMatcher("/**")).permitAll()
 				)
 				.csrf((csrf) -> csrf.disable() // csrf 보호 비활성화
@@ -0,0 +1,47 @@
+package com.mysite.sbb;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// 같은 key 로 동시에 들어온 조회를 하나로 합친다.
+// 먼저 온 호출이 loader 를 실행하고, 그동안 들어온 호출은 그 결과(또는 예외)를 같이 받는다.
+// 결과는 보관하지 않으므로 loader 가 끝난 뒤의 호출은 다시 조회한다.
+public class SingleFlight<K, V> {
+
+	private final Map<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+
+	public V load(K key, Supplier<V> loader) {
+		CompletableFuture<V> call = new CompletableFuture<>();
+		CompletableFuture<V> running = this.calls.putIfAbsent(key, call);
+		if (running != null) {
+			return await(running);
+		}
+		try {
+			V value = loader.get();
+			call.complete(value);
+			return value;
+		} catch (RuntimeException | Error e) {
+			call.completeExceptionally(e);
+			throw e;
+		} finally {
+			this.calls.remove(key, call);
+		}
+	}
+
+	private static <V> V await(CompletableFuture<V> running) {
+		try {
+			return running.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			if (e.getCause() instanceof Error cause) {
+				throw cause;
+			}
+			throw e;
+		}
+	}
+}
@@ -0,0 +1,25 @@
+package com.mysite.sbb;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// 메모리 인덱스처럼 롤백할 수 없는 변경을 트랜잭션이 커밋된 뒤에 실행한다
+public final class Transactions {
+
+	private Transactions() {
+	}
+
+	// 트랜잭션 밖이면 바로 실행하고, 롤백되면 실행하지 않는다
+	public static void afterCommit(Runnable action) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			action.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				action.run();
+			}
+		});
+	}
+}
@@ -0,0 +1,132 @@
+package com.mysite.sbb;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// ApplicationReadyEvent 리스너가 모두 끝난 뒤에 readiness 가 ACCEPTING_TRAFFIC 이 되므로
+// 인덱스 rebuild 리스너 (HIGHEST_PRECEDENCE) 다음에 마지막으로 실행해서
+// 채워진 인덱스로 대표 요청을 반복해 JIT 와 connection pool 을 데운 뒤에 트래픽을 받는다.
+// 요청은 loopback HTTP 로 보내서 실제 요청과 같은 필터, 컨트롤러, 트랜잭션, JSON 직렬화 경로를 거친다.
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class WarmupRunner {
+
+	// 비슷한 질문 조회는 IP 별 search 예산을 쓰므로 이 횟수마다 한 번만 보내서 429 로 거절되지 않게 한다
+	private static final int SIMILAR_EVERY = 20;
+	private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+	private final DataSource dataSource;
+	private final ObjectMapper objectMapper;
+	private final Environment environment;
+
+	@Value("${sbb.warmup.enabled:false}")
+	private boolean enabled;
+
+	@Value("${sbb.warmup.iterations:200}")
+	private int iterations;
+
+	@Value("${sbb.warmup.connections:10}")
+	private int connections;
+
+	@EventListener(ApplicationReadyEvent.class)
+	@Order(Ordered.LOWEST_PRECEDENCE)
+	public void run() {
+		if (!this.enabled) {
+			return;
+		}
+		String port = this.environment.getProperty("local.server.port");
+		if (port == null) {
+			log.info("Skipping warm-up, web server is not running");
+			return;
+		}
+		long start = System.currentTimeMillis();
+		primeConnectionPool();
+		String base = "http://localhost:" + port + this.environment.getProperty("server.servlet.context-path", "");
+		HttpClient client = HttpClient.newBuilder().connectTimeout(REQUEST_TIMEOUT).build();
+		for (int i = 0; i < this.iterations; i++) {
+			try {
+				exercise(client, base, i % SIMILAR_EVERY == 0);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			} catch (Exception e) {
+				log.warn("Warm-up stopped after {} iterations", i, e);
+				break;
+			}
+		}
+		log.info("Warm-up finished in {} ms, ready {} ms after JVM start", System.currentTimeMillis() - start,
+				ManagementFactory.getRuntimeMXBean().getUptime());
+	}
+
+	private void primeConnectionPool() {
+		List<Connection> opened = new ArrayList<>();
+		try {
+			for (int i = 0; i < this.connections; i++) {
+				opened.add(this.dataSource.getConnection());
+			}
+		} catch (SQLException e) {
+			log.warn("Failed to prime connection pool", e);
+		} finally {
+			for (Connection connection : opened) {
+				try {
+					connection.close();
+				} catch (SQLException e) {
+					log.debug("Failed to close warm-up connection", e);
+				}
+			}
+		}
+	}
+
+	private void exercise(HttpClient client, String base, boolean similar) throws IOException, InterruptedException {
+		JsonNode questions = get(client, base + "/api/questions/?page=0").path("content");
+		get(client, base + "/api/questions/hot?size=10");
+		if (questions.isEmpty()) {
+			return;
+		}
+		JsonNode first = questions.get(0);
+		int id = first.path("id").asInt();
+		get(client, base + "/api/questions/" + id);
+		get(client, base + "/api/questions/" + id + "/answers");
+		if (similar) {
+			get(client, base + "/api/questions/similar?size=5&text="
+					+ URLEncoder.encode(first.path("subject").asText(), StandardCharsets.UTF_8));
+		}
+	}
+
+	private JsonNode get(HttpClient client, String url) throws IOException, InterruptedException {
+		HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(REQUEST_TIMEOUT).GET().build();
+		HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+		if (response.statusCode() != 200) {
+			throw new IOException("warm-up request failed: " + url + " -> " + response.statusCode());
+		}
+		return this.objectMapper.readTree(response.body());
+	}
+}
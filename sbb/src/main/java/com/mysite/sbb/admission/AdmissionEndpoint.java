@@ -0,0 +1,49 @@
+package com.mysite.sbb.admission;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// 재시작 없이 admission control 설정을 조회/변경하는 /actuator/admission
+@Slf4j
+@RequiredArgsConstructor
+@Component
+@Endpoint(id = "admission")
+public class AdmissionEndpoint {
+
+	private final AdmissionProperties properties;
+
+	@ReadOperation
+	public AdmissionProperties settings() {
+		return this.properties;
+	}
+
+	@WriteOperation
+	public AdmissionProperties configure(@Nullable Boolean enabled, @Nullable Integer maxConcurrent,
+			@Nullable EndpointClass endpointClass, @Nullable Integer capacity, @Nullable Double refillPerSecond) {
+		if (enabled != null) {
+			this.properties.setEnabled(enabled);
+		}
+		if (maxConcurrent != null) {
+			this.properties.setMaxConcurrent(maxConcurrent);
+		}
+		if (endpointClass != null) {
+			AdmissionProperties.Budget budget = this.properties.getBudgets()
+					.computeIfAbsent(endpointClass, k -> new AdmissionProperties.Budget());
+			if (capacity != null) {
+				budget.setCapacity(capacity);
+			}
+			if (refillPerSecond != null) {
+				budget.setRefillPerSecond(refillPerSecond);
+			}
+		}
+		log.info("Admission settings changed - enabled: {}, maxConcurrent: {}, class: {}, capacity: {}, refill: {}",
+				enabled, maxConcurrent, endpointClass, capacity, refillPerSecond);
+		return this.properties;
+	}
+}
@@ -0,0 +1,43 @@
+package com.mysite.sbb.admission;
+
+import java.time.Duration;
+
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.support.PeriodicTrigger;
+import org.springframework.stereotype.Component;
+
+import com.mysite.sbb.job.Job;
+import com.mysite.sbb.job.JobContext;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class AdmissionEvictionJob implements Job {
+
+	private final AdmissionFilter admissionFilter;
+
+	@Override
+	public String getName() {
+		return "admission-eviction";
+	}
+
+	@Override
+	public Trigger getTrigger() {
+		return new PeriodicTrigger(Duration.ofMinutes(1));
+	}
+
+	@Override
+	public void execute(JobContext context) {
+		int evicted = this.admissionFilter.evictIdle();
+		log.debug("Evicted {} idle token buckets", evicted);
+	}
+
+	// bucket 은 노드마다 메모리에 있으므로 모든 노드에서 실행
+	@Override
+	public boolean isExclusive() {
+		return false;
+	}
+}
@@ -0,0 +1,119 @@
+package com.mysite.sbb.admission;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+// 요청이 컨트롤러에 닿기 전에 분류별 token bucket 과 전체 동시 처리 수를 검사해서
+// 초과하면 429(rate) 또는 503(concurrency)으로 바로 응답한다.
+// Spring Security 필터 뒤에 등록되므로 로그인한 사용자는 사용자 이름, 아니면 IP 기준으로 센다.
+@Slf4j
+@Component
+public class AdmissionFilter extends OncePerRequestFilter {
+
+	private final AdmissionProperties properties;
+	private final MeterRegistry meterRegistry;
+	private final Map<EndpointClass, TokenBucketMap> buckets = new EnumMap<>(EndpointClass.class);
+	private final AtomicInteger inFlight = new AtomicInteger();
+
+	public AdmissionFilter(AdmissionProperties properties, MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.meterRegistry = meterRegistry;
+		for (EndpointClass endpointClass : EndpointClass.values()) {
+			TokenBucketMap map = new TokenBucketMap();
+			this.buckets.put(endpointClass, map);
+			Gauge.builder("sbb.admission.buckets", map, TokenBucketMap::size)
+					.tag("class", endpointClass.name().toLowerCase())
+					.register(meterRegistry);
+		}
+		Gauge.builder("sbb.admission.in-flight", this.inFlight, AtomicInteger::get).register(meterRegistry);
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return !this.properties.isEnabled()
+				|| !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		EndpointClass endpointClass = EndpointClass.of(request);
+		if (endpointClass != null) {
+			AdmissionProperties.Budget budget = this.properties.getBudgets().get(endpointClass);
+			if (budget != null) {
+				long wait = this.buckets.get(endpointClass).get(key(request, endpointClass))
+						.tryAcquire(budget, System.nanoTime());
+				if (wait > 0) {
+					reject(response, endpointClass, "rate", HttpStatus.TOO_MANY_REQUESTS, wait);
+					return;
+				}
+			}
+		}
+		if (!tryEnter()) {
+			reject(response, endpointClass, "concurrency", HttpStatus.SERVICE_UNAVAILABLE, TimeUnit.SECONDS.toNanos(1));
+			return;
+		}
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			this.inFlight.decrementAndGet();
+		}
+	}
+
+	// 마지막 요청 이후 idleTimeout 이 지난 bucket 을 제거하고 제거한 개수를 반환
+	public int evictIdle() {
+		long idleBefore = System.nanoTime() - this.properties.getIdleTimeout().toNanos();
+		int evicted = 0;
+		for (TokenBucketMap map : this.buckets.values()) {
+			evicted += map.evictIdle(idleBefore);
+		}
+		return evicted;
+	}
+
+	private boolean tryEnter() {
+		while (true) {
+			int current = this.inFlight.get();
+			if (current >= this.properties.getMaxConcurrent()) {
+				return false;
+			}
+			if (this.inFlight.compareAndSet(current, current + 1)) {
+				return true;
+			}
+		}
+	}
+
+	// 로그인하지 않은 요청은 IP 별, 로드 밸런서 뒤에서는 server.forward-headers-strategy 가 있어야 클라이언트 IP 가 된다
+	private String key(HttpServletRequest request, EndpointClass endpointClass) {
+		Principal principal = request.getUserPrincipal();
+		if (principal != null && endpointClass != EndpointClass.LOGIN) {
+			return "user:" + principal.getName();
+		}
+		return "ip:" + request.getRemoteAddr();
+	}
+
+	private void reject(HttpServletResponse response, EndpointClass endpointClass, String reason, HttpStatus status,
+			long waitNanos) throws IOException {
+		String tag = endpointClass == null ? "other" : endpointClass.name().toLowerCase();
+		this.meterRegistry.counter("sbb.admission.rejected", "class", tag, "reason", reason).increment();
+		log.debug("Rejected {} request ({})", tag, reason);
+		long retryAfter = waitNanos == Long.MAX_VALUE ? 60 : Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+		response.setHeader("Retry-After", String.valueOf(retryAfter));
+		response.sendError(status.value());
+	}
+}
@@ -0,0 +1,37 @@
+package com.mysite.sbb.admission;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+// 실행 중에 /actuator/admission 으로 값을 바꿀 수 있으므로 필드는 volatile
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "sbb.admission")
+public class AdmissionProperties {
+	private volatile boolean enabled = true;
+
+	// 동시에 처리할 수 있는 /api 요청 수, 넘으면 503
+	private volatile int maxConcurrent = 200;
+
+	// 이 시간 동안 요청이 없던 bucket 은 제거
+	private volatile Duration idleTimeout = Duration.ofMinutes(10);
+
+	private final Map<EndpointClass, Budget> budgets = new ConcurrentHashMap<>();
+
+	@Getter
+	@Setter
+	public static class Budget {
+		// 한 번에 허용하는 최대 요청 수
+		private volatile int capacity;
+
+		private volatile double refillPerSecond;
+	}
+}
@@ -0,0 +1,33 @@
+package com.mysite.sbb.admission;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+// 요청 비용에 따라 나눈 endpoint 분류, 분류마다 별도의 token bucket 예산을 쓴다
+public enum EndpointClass {
+	SEARCH, WRITE, VOTE, LOGIN;
+
+	// 예산 제한이 없는 요청이면 null
+	public static EndpointClass of(HttpServletRequest request) {
+		String method = request.getMethod();
+		String path = request.getRequestURI().substring(request.getContextPath().length());
+		if ("POST".equals(method) && (path.equals("/api/login") || path.equals("/api/signup"))) {
+			return LOGIN;
+		}
+		if ("POST".equals(method) && path.endsWith("/vote")) {
+			return VOTE;
+		}
+		if ("POST".equals(method) || "PUT".equals(method) || "DELETE".equals(method)) {
+			return WRITE;
+		}
+		if ("GET".equals(method) && (path.equals("/api/questions/similar") || path.endsWith("/batch"))) {
+			return SEARCH;
+		}
+		if ("GET".equals(method) && path.startsWith("/api/questions")) {
+			String kw = request.getParameter("kw");
+			if (kw != null && !kw.isEmpty()) {
+				return SEARCH;
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,33 @@
+package com.mysite.sbb.admission;
+
+class TokenBucket {
+
+	private double tokens = -1;
+	private long lastRefill;
+	private volatile long lastAccess;
+
+	// 허용하면 0, 거절하면 다음 token 까지 남은 nanos
+	synchronized long tryAcquire(AdmissionProperties.Budget budget, long now) {
+		this.lastAccess = now;
+		int capacity = budget.getCapacity();
+		if (this.tokens < 0) {
+			this.tokens = capacity;
+		} else {
+			double refill = (now - this.lastRefill) / 1_000_000_000.0 * budget.getRefillPerSecond();
+			this.tokens = Math.min(capacity, this.tokens + refill);
+		}
+		this.lastRefill = now;
+		if (this.tokens >= 1) {
+			this.tokens -= 1;
+			return 0;
+		}
+		if (budget.getRefillPerSecond() <= 0) {
+			return Long.MAX_VALUE;
+		}
+		return (long) ((1 - this.tokens) / budget.getRefillPerSecond() * 1_000_000_000.0);
+	}
+
+	long getLastAccess() {
+		return this.lastAccess;
+	}
+}
@@ -0,0 +1,44 @@
+package com.mysite.sbb.admission;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+// 키(사용자 또는 IP)별 TokenBucket, 정리 작업이 shard 하나씩 순회하도록 나눠서 보관
+class TokenBucketMap {
+
+	private static final int SHARDS = 16;
+
+	@SuppressWarnings("unchecked")
+	private final ConcurrentHashMap<String, TokenBucket>[] shards = new ConcurrentHashMap[SHARDS];
+
+	TokenBucketMap() {
+		for (int i = 0; i < SHARDS; i++) {
+			this.shards[i] = new ConcurrentHashMap<>();
+		}
+	}
+
+	TokenBucket get(String key) {
+		return shard(key).computeIfAbsent(key, k -> new TokenBucket());
+	}
+
+	int evictIdle(long idleBefore) {
+		int evicted = 0;
+		for (ConcurrentHashMap<String, TokenBucket> shard : this.shards) {
+			int before = shard.size();
+			shard.values().removeIf(bucket -> bucket.getLastAccess() < idleBefore);
+			evicted += before - shard.size();
+		}
+		return evicted;
+	}
+
+	int size() {
+		int size = 0;
+		for (ConcurrentHashMap<String, TokenBucket> shard : this.shards) {
+			size += shard.size();
+		}
+		return size;
+	}
+
+	private ConcurrentHashMap<String, TokenBucket> shard(String key) {
+		return this.shards[(key.hashCode() & 0x7fffffff) % SHARDS];
+	}
+}
@@ -4,29 +4,49 @@ import java.time.LocalDateTime;
 import java.util.Set;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.mysite.sbb.content.ContentBody;
 import com.mysite.sbb.question.Question;
 import com.mysite.sbb.user.SiteUser;
 
+import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
+import jakarta.persistence.ConstraintMode;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
 
 @Getter
 @Setter
 @Entity
+@Table(indexes = { @Index(name = "idx_answer_create_date", columnList = "create_date"),
+		@Index(name = "idx_answer_author_create_date", columnList = "author_id, create_date, id"),
+		@Index(name = "idx_answer_question_create_date", columnList = "question_id, create_date, id"),
+		@Index(name = "idx_answer_question_vote_count", columnList = "question_id, vote_count, id") })
 public class Answer {
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Integer id;
 
-	@Column(columnDefinition = "TEXT")
-	private String content;
+	// 본문은 content_body 에 따로 저장하고 getContent() 를 호출할 때 읽는다
+	@OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL)
+	@JoinColumn(name = "body_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+	private ContentBody body;
+
+	// body 로 옮기기 전의 본문 컬럼, AnswerContentMigrationJob 이 옮기고 나면 null
+	@Column(name = "content", columnDefinition = "TEXT")
+	private String legacyContent;
 
 	private LocalDateTime createDate;
 
@@ -40,5 +60,14 @@ public class Answer {
 	private LocalDateTime modifyDate;
 
 	@ManyToMany
+	@JoinTable(name = "answer_voter", joinColumns = @JoinColumn(name = "answer_id"),
+			inverseJoinColumns = @JoinColumn(name = "voter_id"),
+			indexes = @Index(name = "idx_answer_voter_voter", columnList = "voter_id, answer_id"))
     Set<SiteUser> voter;
+
+	private int voteCount;
+
+	public String getContent() {
+		return this.body != null ? this.body.getText() : this.legacyContent;
+	}
 }
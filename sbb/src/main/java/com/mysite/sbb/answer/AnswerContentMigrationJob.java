@@ -0,0 +1,46 @@
+package com.mysite.sbb.answer;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.support.PeriodicTrigger;
+import org.springframework.stereotype.Component;
+
+import com.mysite.sbb.job.ChunkedJob;
+
+import lombok.RequiredArgsConstructor;
+
+// answer.content 컬럼에 남아 있는 본문을 content_body 로 옮기는 작업
+@RequiredArgsConstructor
+@Component
+public class AnswerContentMigrationJob extends ChunkedJob {
+
+	private final AnswerService answerService;
+	private final AnswerRepository answerRepository;
+
+	@Value("${sbb.content.migration-interval:PT5M}")
+	private Duration interval;
+
+	@Override
+	public String getName() {
+		return "answer-content-migration";
+	}
+
+	@Override
+	public Trigger getTrigger() {
+		return new PeriodicTrigger(this.interval);
+	}
+
+	@Override
+	protected List<Integer> nextChunk(int afterId, int size) {
+		return this.answerRepository.findLegacyContentIdsAfter(afterId, PageRequest.of(0, size));
+	}
+
+	@Override
+	protected void process(List<Integer> ids) {
+		this.answerService.migrateContent(ids);
+	}
+}
@@ -0,0 +1,7 @@
+package com.mysite.sbb.answer;
+
+public interface AnswerCount {
+	Integer getQuestionId();
+
+	long getCount();
+}
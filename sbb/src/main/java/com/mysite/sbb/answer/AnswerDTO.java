@@ -13,4 +13,5 @@ public class AnswerDTO {
     private LocalDateTime createDate;
     private String authorUsername;
     private LocalDateTime modifyDate;
+    private int voteCount;
 }
@@ -1,7 +1,139 @@
 package com.mysite.sbb.answer;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import com.mysite.sbb.question.Question;
+import com.mysite.sbb.user.SiteUser;
+
+import jakarta.persistence.QueryHint;
 
 public interface AnswerRepository extends JpaRepository<Answer, Integer> {
 
+	@QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "-2147483648"))
+	@Query("select q.id as questionId, q.subject as subject, a.createDate as createDate "
+			+ "from Answer a join a.question q where q.deleteDate is null and a.createDate >= :since")
+	Stream<HotAnswerSource> streamHotSources(@Param("since") LocalDateTime since);
+
+	@Query("select a.id as id, q.id as questionId, q.subject as questionSubject, a.createDate as createDate "
+			+ "from Answer a join a.question q where a.author = :author and q.deleteDate is null "
+			+ "and (a.createDate < :createDate or (a.createDate = :createDate and a.id < :id)) "
+			+ "order by a.createDate desc, a.id desc")
+	List<AnswerSummary> findSummariesByAuthor(@Param("author") SiteUser author,
+			@Param("createDate") LocalDateTime createDate, @Param("id") int id, Pageable pageable);
+
+	@Query("select a.id as id, q.id as questionId, q.subject as questionSubject, a.createDate as createDate "
+			+ "from Answer a join a.question q join a.voter v where v = :voter and q.deleteDate is null "
+			+ "and a.id < :id order by a.id desc")
+	List<AnswerSummary> findSummariesByVoter(@Param("voter") SiteUser voter, @Param("id") int id,
+			Pageable pageable);
+
+	// 목록과 같게 삭제된 질문의 답변은 세지 않는다
+	@Query("select count(a) from Answer a join a.question q where a.author = :author and q.deleteDate is null")
+	long countByAuthor(@Param("author") SiteUser author);
+
+	@Query("select count(a) from Answer a join a.question q join a.voter v where v = :voter "
+			+ "and q.deleteDate is null")
+	long countByVoter(@Param("voter") SiteUser voter);
+
+	@Query("select a from Answer a left join fetch a.author left join fetch a.body where a.question = :question "
+			+ "and (a.createDate > :createDate or (a.createDate = :createDate and a.id > :id)) "
+			+ "order by a.createDate asc, a.id asc")
+	List<Answer> findOldest(@Param("question") Question question, @Param("createDate") LocalDateTime createDate,
+			@Param("id") int id, Pageable pageable);
+
+	@Query("select a from Answer a left join fetch a.author left join fetch a.body where a.question = :question "
+			+ "and (a.createDate < :createDate or (a.createDate = :createDate and a.id < :id)) "
+			+ "order by a.createDate desc, a.id desc")
+	List<Answer> findNewest(@Param("question") Question question, @Param("createDate") LocalDateTime createDate,
+			@Param("id") int id, Pageable pageable);
+
+	// idx_answer_question_vote_count 를 역순으로 읽을 수 있도록 두 컬럼 모두 내림차순
+	@Query("select a from Answer a left join fetch a.author left join fetch a.body where a.question = :question "
+			+ "and (a.voteCount < :voteCount or (a.voteCount = :voteCount and a.id < :id)) "
+			+ "order by a.voteCount desc, a.id desc")
+	List<Answer> findMostVoted(@Param("question") Question question, @Param("voteCount") int voteCount,
+			@Param("id") int id, Pageable pageable);
+
+	long countByQuestion(Question question);
+
+	@Query("select u.username from Answer a join a.author u where a.id = :id")
+	Optional<String> findAuthorUsernameById(@Param("id") Integer id);
+
+	// question 과 그 작성자는 EAGER 라서 같이 fetch 하지 않으면 답변마다 따로 조회된다
+	@Query("select a from Answer a left join fetch a.author left join fetch a.body join fetch a.question q "
+			+ "left join fetch q.author where a.id in :ids and q.deleteDate is null")
+	List<Answer> findBatch(@Param("ids") List<Integer> ids);
+
+	@Query("select a.question.id as questionId, count(a) as count from Answer a "
+			+ "where a.question.id in :questionIds group by a.question.id")
+	List<AnswerCount> countByQuestionIds(@Param("questionIds") List<Integer> questionIds);
+
+	@Query("select a.id from Answer a where a.legacyContent is not null and a.id > :afterId order by a.id")
+	List<Integer> findLegacyContentIdsAfter(@Param("afterId") int afterId, Pageable pageable);
+
+	@Query("select a.id from Answer a where a.id > :afterId order by a.id")
+	List<Integer> findIdsAfter(@Param("afterId") int afterId, Pageable pageable);
+
+	@Modifying
+	@Query(value = "update answer a set a.vote_count = "
+			+ "(select count(*) from answer_voter v where v.answer_id = a.id) "
+			+ "where a.id in (:ids)", nativeQuery = true)
+	int updateVoteCounts(@Param("ids") List<Integer> ids);
+
+	// archive 에서 스레드를 읽기 전에 답변 행을 잠가서 그 사이 추천이 추가되지 않게 한다
+	@Query(value = "select id from answer where question_id = :questionId order by id for update", nativeQuery = true)
+	List<Integer> lockIdsByQuestionId(@Param("questionId") Integer questionId);
+
+	@Query("select a from Answer a left join fetch a.author left join fetch a.body where a.question.id = :questionId "
+			+ "order by a.id")
+	List<Answer> findThreadByQuestionId(@Param("questionId") Integer questionId);
+
+	// archive 에서 복원할 때 원래 ID 를 그대로 쓰기 위한 insert
+	@Modifying
+	@Query(value = "insert into answer (id, question_id, author_id, create_date, modify_date, vote_count, body_id) "
+			+ "values (:id, :questionId, :authorId, :createDate, :modifyDate, :voteCount, :bodyId)", nativeQuery = true)
+	int insertRestored(@Param("id") Integer id, @Param("questionId") Integer questionId,
+			@Param("authorId") Long authorId, @Param("createDate") LocalDateTime createDate,
+			@Param("modifyDate") LocalDateTime modifyDate, @Param("voteCount") int voteCount,
+			@Param("bodyId") Long bodyId);
+
+	@Modifying
+	@Query(value = "insert into answer_voter (answer_id, voter_id) values (:answerId, :voterId)", nativeQuery = true)
+	int insertVoter(@Param("answerId") Integer answerId, @Param("voterId") Long voterId);
+
+	@Query("select a.id from Answer a where a.question.id = :questionId order by a.id")
+	List<Integer> findIdsByQuestionId(@Param("questionId") Integer questionId, Pageable pageable);
+
+	// content_body 에는 FK 가 없으므로 답변보다 먼저 삭제한다
+	@Modifying
+	@Query("delete from ContentBody b where b.id in "
+			+ "(select a.body.id from Answer a where a.question.id = :questionId)")
+	int deleteBodiesByQuestionId(@Param("questionId") Integer questionId);
+
+	@Modifying
+	@Query("delete from ContentBody b where b.id in (select a.body.id from Answer a where a.id in :ids)")
+	int deleteBodiesByIdIn(@Param("ids") List<Integer> ids);
+
+	@Modifying
+	@Query(value = "delete from answer_voter where answer_id in "
+			+ "(select id from answer where question_id = :questionId)", nativeQuery = true)
+	int deleteVotersByQuestionId(@Param("questionId") Integer questionId);
+
+	@Modifying
+	@Query(value = "delete from answer_voter where answer_id in (:ids)", nativeQuery = true)
+	int deleteVotersByIdIn(@Param("ids") List<Integer> ids);
+
+	@Modifying
+	@Query("delete from Answer a where a.question.id = :questionId")
+	int deleteByQuestionId(@Param("questionId") Integer questionId);
 }
@@ -1,15 +1,24 @@
 package com.mysite.sbb.answer;
 
 import java.security.Principal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import com.mysite.sbb.BatchItem;
+import com.mysite.sbb.archive.ArchivedThread;
 import com.mysite.sbb.question.Question;
 import com.mysite.sbb.question.QuestionService;
+import com.mysite.sbb.revision.PostType;
+import com.mysite.sbb.revision.RevisionDTO;
+import com.mysite.sbb.revision.RevisionService;
 import com.mysite.sbb.user.SiteUser;
 import com.mysite.sbb.user.UserService;
 
@@ -22,9 +31,12 @@ import org.springframework.web.server.ResponseStatusException;
 @RequestMapping("/api/answers")
 public class AnswerRestController {
 
+    private static final int MAX_BATCH_SIZE = 200;
+
     private final QuestionService questionService;
     private final AnswerService answerService;
     private final UserService userService;
+    private final RevisionService revisionService;
 
     @PreAuthorize("isAuthenticated()")
     @PostMapping("/{id}")
@@ -37,14 +49,43 @@ public class AnswerRestController {
         return new ResponseEntity<>(answerDTO, HttpStatus.CREATED);
     }
 
+    // 여러 답변을 한 번에 조회, 요청한 순서대로 반환하고 없는 ID 는 found=false
+    // 테이블에 없는 ID 는 보관된 스레드에서 찾고, 단건 조회와 달리 복원하지 않는다
+    @GetMapping("/batch")
+    public ResponseEntity<List<BatchItem<AnswerDTO>>> getAnswerBatch(@RequestParam("ids") List<Integer> ids) {
+        if (ids.isEmpty() || ids.size() > MAX_BATCH_SIZE || ids.contains(null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "ids 는 1~" + MAX_BATCH_SIZE + "개의 ID 여야 합니다.");
+        }
+        Map<Integer, AnswerDTO> dtos = new HashMap<>();
+        this.answerService.getAnswers(ids).forEach((answerId, answer) -> dtos.put(answerId, toDTO(answer)));
+        List<Integer> missing = ids.stream().filter(answerId -> !dtos.containsKey(answerId)).toList();
+        if (!missing.isEmpty()) {
+            this.answerService.getArchivedAnswers(missing).forEach((answerId, post) -> dtos.put(answerId, toDTO(post)));
+        }
+        return new ResponseEntity<>(BatchItem.of(ids, dtos), HttpStatus.OK);
+    }
+
+    // 답변 수정 이력 목록 (최신순), 수정된 적 없는 답변이면 빈 페이지
+    @GetMapping("/{id}/revisions")
+    public ResponseEntity<Page<RevisionDTO>> getRevisions(@PathVariable("id") Integer id,
+                                                          @RequestParam(value = "page", defaultValue = "0") int page) {
+        return new ResponseEntity<>(this.revisionService.getList(PostType.ANSWER, id, page), HttpStatus.OK);
+    }
+
+    @GetMapping("/{id}/revisions/{number}")
+    public ResponseEntity<RevisionDTO> getRevision(@PathVariable("id") Integer id, @PathVariable("number") int number) {
+        return new ResponseEntity<>(this.revisionService.getRevision(PostType.ANSWER, id, number), HttpStatus.OK);
+    }
+
     @PreAuthorize("isAuthenticated()")
     @PutMapping("/{id}")
     public ResponseEntity<AnswerDTO> answerModify(@PathVariable("id") Integer id, @Valid @RequestBody AnswerForm answerForm,
                                                   Principal principal) {
-        Answer answer = this.answerService.getAnswer(id);
-        if (!answer.getAuthor().getUsername().equals(principal.getName())) {
+        // 보관된 답변이면 권한을 확인한 뒤에 복원
+        if (!this.answerService.getAuthorUsername(id).equals(principal.getName())) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "수정권한이 없습니다.");
         }
+        Answer answer = this.answerService.getAnswer(id);
         this.answerService.modify(answer, answerForm.getContent());
         AnswerDTO answerDTO = toDTO(answer);
         return new ResponseEntity<>(answerDTO, HttpStatus.OK);
@@ -53,10 +94,10 @@ public class AnswerRestController {
     @PreAuthorize("isAuthenticated()")
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> answerDelete(Principal principal, @PathVariable("id") Integer id) {
-        Answer answer = this.answerService.getAnswer(id);
-        if (!answer.getAuthor().getUsername().equals(principal.getName())) {
+        if (!this.answerService.getAuthorUsername(id).equals(principal.getName())) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "삭제권한이 없습니다.");
         }
+        Answer answer = this.answerService.getAnswer(id);
         this.answerService.delete(answer);
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
@@ -77,6 +118,18 @@ public class AnswerRestController {
         dto.setCreateDate(answer.getCreateDate());
         dto.setModifyDate(answer.getModifyDate());
         dto.setAuthorUsername(answer.getAuthor().getUsername());
+        dto.setVoteCount(answer.getVoteCount());
+        return dto;
+    }
+
+    private AnswerDTO toDTO(ArchivedThread.Post answer) {
+        AnswerDTO dto = new AnswerDTO();
+        dto.setId(answer.id());
+        dto.setContent(answer.content());
+        dto.setCreateDate(answer.createDate());
+        dto.setModifyDate(answer.modifyDate());
+        dto.setVoteCount(answer.voteCount());
+        dto.setAuthorUsername(answer.authorUsername() != null ? answer.authorUsername() : "Anonymous");
         return dto;
     }
 }
@@ -1,34 +1,84 @@
 package com.mysite.sbb.answer;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.mysite.sbb.DataNotFoundException;
+import com.mysite.sbb.KeysetCursor;
+import com.mysite.sbb.KeysetPage;
+import com.mysite.sbb.archive.ArchiveService;
+import com.mysite.sbb.archive.ArchivedThread;
+import com.mysite.sbb.content.ContentStore;
+import com.mysite.sbb.question.HotQuestionIndex;
 import com.mysite.sbb.question.Question;
+import com.mysite.sbb.revision.PostType;
+import com.mysite.sbb.revision.RevisionRepository;
+import com.mysite.sbb.revision.RevisionService;
 import com.mysite.sbb.user.SiteUser;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import lombok.RequiredArgsConstructor;
 
 @RequiredArgsConstructor
 @Service
 public class AnswerService {
 
+	// 첫 페이지 cursor, MySQL DATETIME 범위의 양 끝
+	private static final LocalDateTime MIN_DATE = LocalDateTime.of(1000, 1, 1, 0, 0);
+	private static final LocalDateTime MAX_DATE = LocalDateTime.of(9999, 12, 31, 0, 0);
+
 	private final AnswerRepository answerRepository;
+	private final HotQuestionIndex hotQuestionIndex;
+	private final ContentStore contentStore;
+	private final ArchiveService archiveService;
+	private final RevisionService revisionService;
+	private final RevisionRepository revisionRepository;
+	private final EntityManager entityManager;
+
+	// 여러 ID 를 조회할 때 IN 목록 하나에 넣을 최대 ID 수
+	@Value("${sbb.batch.chunk-size:100}")
+	private int batchChunkSize;
 
 	public Answer create(Question question, String content, SiteUser author) {
+		if (question.getArchiveDate() != null) {
+			this.archiveService.restore(question);
+		}
 		Answer answer = new Answer();
-		answer.setContent(content);
+		answer.setBody(this.contentStore.write(null, content));
 		answer.setCreateDate(LocalDateTime.now());
 		answer.setQuestion(question);
 		answer.setAuthor(author);
 		this.answerRepository.save(answer);
+		this.hotQuestionIndex.recordAnswer(question);
 		return answer;
 	}
 
+	// 수정, 삭제 권한 확인용, 보관된 답변이면 스레드를 복원하지 않고 archive 레코드에서 읽는다
+	public String getAuthorUsername(Integer id) {
+		Optional<String> username = this.answerRepository.findAuthorUsernameById(id);
+		if (username.isEmpty()) {
+			username = this.archiveService.findAnswer(id).map(ArchivedThread.Post::authorUsername);
+		}
+		return username.orElseThrow(() -> new DataNotFoundException("answer not found"));
+	}
+
+	// 수정, 삭제, 추천에서 사용하므로 보관된 답변이면 스레드를 복원한 뒤 반환
 	public Answer getAnswer(Integer id) {
 		Optional<Answer> answer = this.answerRepository.findById(id);
+		if (answer.isEmpty() && this.archiveService.restoreAnswer(id)) {
+			answer = this.answerRepository.findById(id);
+		}
 		if (answer.isPresent()) {
 			return answer.get();
 		} else {
@@ -36,18 +86,105 @@ public class AnswerService {
 		}
 	}
 
+	public KeysetPage<Answer> getPage(Question question, AnswerSort sort, String cursor, int size) {
+		KeysetCursor after = cursor == null ? null : KeysetCursor.parse(cursor);
+		Pageable limit = PageRequest.of(0, size + 1);
+		List<Answer> rows;
+		switch (sort) {
+		case NEWEST:
+			rows = this.answerRepository.findNewest(question, after == null ? MAX_DATE : after.dateKey(),
+					after == null ? Integer.MAX_VALUE : after.id(), limit);
+			return KeysetPage.of(rows, size, a -> KeysetCursor.of(a.getCreateDate(), a.getId()));
+		case VOTES:
+			rows = this.answerRepository.findMostVoted(question, after == null ? Integer.MAX_VALUE : after.intKey(),
+					after == null ? Integer.MAX_VALUE : after.id(), limit);
+			return KeysetPage.of(rows, size, a -> KeysetCursor.of(a.getVoteCount(), a.getId()));
+		default:
+			rows = this.answerRepository.findOldest(question, after == null ? MIN_DATE : after.dateKey(),
+					after == null ? 0 : after.id(), limit);
+			return KeysetPage.of(rows, size, a -> KeysetCursor.of(a.getCreateDate(), a.getId()));
+		}
+	}
+
+	public long getCount(Question question) {
+		return this.answerRepository.countByQuestion(question);
+	}
+
+	// 질문 ID 별 답변 수, 답변이 없는 질문은 포함하지 않음
+	public Map<Integer, Long> getCounts(List<Integer> questionIds) {
+		List<Integer> distinct = List.copyOf(new LinkedHashSet<>(questionIds));
+		Map<Integer, Long> counts = new HashMap<>();
+		for (int from = 0; from < distinct.size(); from += this.batchChunkSize) {
+			List<Integer> chunk = distinct.subList(from, Math.min(distinct.size(), from + this.batchChunkSize));
+			this.answerRepository.countByQuestionIds(chunk).forEach(c -> counts.put(c.getQuestionId(), c.getCount()));
+		}
+		return counts;
+	}
+
+	// 찾은 답변만 ID 로 반환, 작성자와 본문은 같은 쿼리로 읽는다
+	public Map<Integer, Answer> getAnswers(List<Integer> ids) {
+		List<Integer> distinct = List.copyOf(new LinkedHashSet<>(ids));
+		Map<Integer, Answer> found = new HashMap<>();
+		for (int from = 0; from < distinct.size(); from += this.batchChunkSize) {
+			List<Integer> chunk = distinct.subList(from, Math.min(distinct.size(), from + this.batchChunkSize));
+			this.answerRepository.findBatch(chunk).forEach(a -> found.put(a.getId(), a));
+		}
+		return found;
+	}
+
+	// getAnswers 에서 찾지 못한 ID 중 보관된 스레드의 답변, 복원하지 않고 읽기만 한다
+	public Map<Integer, ArchivedThread.Post> getArchivedAnswers(List<Integer> ids) {
+		List<Integer> distinct = List.copyOf(new LinkedHashSet<>(ids));
+		Map<Integer, ArchivedThread.Post> found = new HashMap<>();
+		for (int from = 0; from < distinct.size(); from += this.batchChunkSize) {
+			List<Integer> chunk = distinct.subList(from, Math.min(distinct.size(), from + this.batchChunkSize));
+			found.putAll(this.archiveService.findAnswers(chunk));
+		}
+		return found;
+	}
+
+	// 동시에 수정하면 revision 번호가 겹치고 이전 본문이 달라지므로 답변 행을 잠그고 다시 읽은 뒤 수정한다
+	@Transactional
 	public void modify(Answer answer, String content) {
-		answer.setContent(content);
+		this.entityManager.refresh(answer, LockModeType.PESSIMISTIC_WRITE);
+		this.revisionService.recordEdit(PostType.ANSWER, answer.getId(),
+				answer.getModifyDate() != null ? answer.getModifyDate() : answer.getCreateDate(), null,
+				answer.getContent(), null, content);
+		answer.setBody(this.contentStore.write(answer.getBody(), content));
+		answer.setLegacyContent(null);
 		answer.setModifyDate(LocalDateTime.now());
 		this.answerRepository.save(answer);
 	}
 
+	// cascade remove 는 본문을 읽은 뒤 지우므로 delete 문으로 본문, 추천, 답변을 차례로 삭제
+	@Transactional
 	public void delete(Answer answer) {
-		this.answerRepository.delete(answer);
+		List<Integer> ids = List.of(answer.getId());
+		this.revisionRepository.deleteByPost(PostType.ANSWER, answer.getId());
+		this.answerRepository.deleteBodiesByIdIn(ids);
+		this.answerRepository.deleteVotersByIdIn(ids);
+		this.answerRepository.deleteAllByIdInBatch(ids);
 	}
 
 	public void vote(Answer answer, SiteUser siteUser) {
 		answer.getVoter().add(siteUser);
+		answer.setVoteCount(answer.getVoter().size());
 		this.answerRepository.save(answer);
 	}
+
+	@Transactional
+	public void reconcileVoteCount(List<Integer> ids) {
+		this.answerRepository.updateVoteCounts(ids);
+	}
+
+	// 이전 content 컬럼의 본문을 content_body 로 옮김
+	@Transactional
+	public void migrateContent(List<Integer> ids) {
+		for (Answer answer : this.answerRepository.findAllById(ids)) {
+			if (answer.getLegacyContent() != null) {
+				answer.setBody(this.contentStore.write(answer.getBody(), answer.getLegacyContent()));
+				answer.setLegacyContent(null);
+			}
+		}
+	}
 }
@@ -0,0 +1,17 @@
+package com.mysite.sbb.answer;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+public enum AnswerSort {
+	OLDEST, NEWEST, VOTES;
+
+	public static AnswerSort from(String value) {
+		for (AnswerSort sort : values()) {
+			if (sort.name().equalsIgnoreCase(value)) {
+				return sort;
+			}
+		}
+		throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid sort: " + value);
+	}
+}
@@ -0,0 +1,13 @@
+package com.mysite.sbb.answer;
+
+import java.time.LocalDateTime;
+
+public interface AnswerSummary {
+	Integer getId();
+
+	Integer getQuestionId();
+
+	String getQuestionSubject();
+
+	LocalDateTime getCreateDate();
+}
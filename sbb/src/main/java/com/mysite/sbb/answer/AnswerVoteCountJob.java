@@ -0,0 +1,45 @@
+package com.mysite.sbb.answer;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.stereotype.Component;
+
+import com.mysite.sbb.job.ChunkedJob;
+
+import lombok.RequiredArgsConstructor;
+
+// answer.vote_count 를 answer_voter 기준으로 다시 맞추는 작업
+@RequiredArgsConstructor
+@Component
+public class AnswerVoteCountJob extends ChunkedJob {
+
+	private final AnswerService answerService;
+	private final AnswerRepository answerRepository;
+
+	@Value("${sbb.job.answer-vote-count.cron:0 5/10 * * * *}")
+	private String cron;
+
+	@Override
+	public String getName() {
+		return "answer-vote-count";
+	}
+
+	@Override
+	public Trigger getTrigger() {
+		return new CronTrigger(this.cron);
+	}
+
+	@Override
+	protected List<Integer> nextChunk(int afterId, int size) {
+		return this.answerRepository.findIdsAfter(afterId, PageRequest.of(0, size));
+	}
+
+	@Override
+	protected void process(List<Integer> ids) {
+		this.answerService.reconcileVoteCount(ids);
+	}
+}
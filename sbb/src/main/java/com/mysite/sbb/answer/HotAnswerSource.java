@@ -0,0 +1,11 @@
+package com.mysite.sbb.answer;
+
+import java.time.LocalDateTime;
+
+public interface HotAnswerSource {
+	Integer getQuestionId();
+
+	String getSubject();
+
+	LocalDateTime getCreateDate();
+}
@@ -0,0 +1,274 @@
+package com.mysite.sbb.archive;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mysite.sbb.KeysetCursor;
+import com.mysite.sbb.KeysetPage;
+import com.mysite.sbb.answer.Answer;
+import com.mysite.sbb.answer.AnswerRepository;
+import com.mysite.sbb.answer.AnswerSort;
+import com.mysite.sbb.content.ContentBody;
+import com.mysite.sbb.content.ContentBodyRepository;
+import com.mysite.sbb.content.ContentStore;
+import com.mysite.sbb.question.HotQuestionIndex;
+import com.mysite.sbb.question.Question;
+import com.mysite.sbb.question.QuestionRepository;
+import com.mysite.sbb.question.SimilarQuestionIndex;
+import com.mysite.sbb.user.SiteUser;
+import com.mysite.sbb.user.UserRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// 오래된 스레드를 archive 세그먼트로 옮기고, 쓰기 요청이 오면 다시 테이블로 복원한다.
+// 보관된 질문은 제목, 작성자, 작성일, 추천 수만 가진 stub 행으로 남으므로
+// 목록과 키워드 검색에는 계속 나오지만 검색 대상은 제목과 질문 작성자뿐이고, 본문과 답변은 검색되지 않는다.
+// 사용자 활동 목록과 통계에도 보관된 답변과 추천은 포함되지 않는다.
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class ArchiveService {
+
+	private final QuestionRepository questionRepository;
+	private final AnswerRepository answerRepository;
+	private final UserRepository userRepository;
+	private final ContentBodyRepository contentBodyRepository;
+	private final ContentStore contentStore;
+	private final ArchiveStore archiveStore;
+	private final ArchivedAnswerRepository archivedAnswerRepository;
+	private final HotQuestionIndex hotQuestionIndex;
+	private final SimilarQuestionIndex similarQuestionIndex;
+	private final ObjectMapper objectMapper;
+	private final PlatformTransactionManager transactionManager;
+	private final EntityManager entityManager;
+
+	// 세그먼트에 먼저 기록한 뒤 테이블에서 지우므로, 트랜잭션이 실패해도 남는 것은 쓰이지 않는 세그먼트 레코드뿐이다.
+	// 질문 행과 답변 행을 잠근 뒤 스레드를 읽으므로 그 사이 답변, 추천이 추가되지 않는다 (FK 확인이 잠금을 기다린다)
+	@Transactional
+	public boolean archive(Integer id) {
+		Question question = this.entityManager.find(Question.class, id, LockModeType.PESSIMISTIC_WRITE);
+		if (question == null || question.getArchiveDate() != null || question.getDeleteDate() != null) {
+			return false;
+		}
+		List<Integer> answerIds = this.answerRepository.lockIdsByQuestionId(id);
+		List<Answer> answers = this.answerRepository.findThreadByQuestionId(id);
+		if (answers.size() != answerIds.size()) {
+			throw new IllegalStateException("thread changed while archiving: " + id);
+		}
+		List<ArchivedThread.Post> posts = new ArrayList<>(answers.size());
+		for (Answer answer : answers) {
+			SiteUser author = answer.getAuthor();
+			posts.add(new ArchivedThread.Post(answer.getId(), answer.getContent(),
+					author != null ? author.getId() : null, author != null ? author.getUsername() : null,
+					answer.getCreateDate(), answer.getModifyDate(), answer.getVoteCount(), userIds(answer.getVoter())));
+		}
+		LocalDateTime now = LocalDateTime.now();
+		ArchivedThread thread = new ArchivedThread(id, question.getContent(), userIds(question.getVoter()), posts, now);
+		try {
+			this.archiveStore.append(id, answerIds.stream().mapToInt(Integer::intValue).toArray(),
+					this.objectMapper.writeValueAsBytes(thread));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		// 세그먼트에 기록한 답변만 지우고, 그 밖의 답변이 있으면 롤백한다
+		if (!answerIds.isEmpty()) {
+			this.archivedAnswerRepository.insertByQuestionId(id);
+			this.answerRepository.deleteBodiesByIdIn(answerIds);
+			this.answerRepository.deleteVotersByIdIn(answerIds);
+		}
+		if (this.answerRepository.deleteByQuestionId(id) != answerIds.size()) {
+			throw new IllegalStateException("thread changed while archiving: " + id);
+		}
+		this.questionRepository.deleteVotersById(id);
+		this.questionRepository.deleteBodyById(id);
+		this.questionRepository.markArchived(id, now);
+		this.hotQuestionIndex.remove(id);
+		this.similarQuestionIndex.put(id, question.getSubject(), null);
+		log.debug("Archived question ID: {} ({} answers)", id, answers.size());
+		return true;
+	}
+
+	public ArchivedThread load(Question question) {
+		try {
+			byte[] data = this.archiveStore.read(question.getId());
+			if (data == null) {
+				throw new IllegalStateException("archived thread not found: " + question.getId());
+			}
+			return this.objectMapper.readValue(data, ArchivedThread.class);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	// AnswerService.getPage 와 같은 순서와 cursor 형식으로 보관된 답변을 나눠서 반환
+	public KeysetPage<ArchivedThread.Post> getAnswerPage(ArchivedThread thread, AnswerSort sort, String cursor,
+			int size) {
+		Comparator<ArchivedThread.Post> order;
+		Function<ArchivedThread.Post, KeysetCursor> key;
+		switch (sort) {
+		case NEWEST:
+			order = Comparator.comparing(ArchivedThread.Post::createDate).thenComparing(ArchivedThread.Post::id)
+					.reversed();
+			key = p -> KeysetCursor.of(p.createDate(), p.id());
+			break;
+		case VOTES:
+			order = Comparator.comparingInt(ArchivedThread.Post::voteCount).thenComparing(ArchivedThread.Post::id)
+					.reversed();
+			key = p -> KeysetCursor.of(p.voteCount(), p.id());
+			break;
+		default:
+			order = Comparator.comparing(ArchivedThread.Post::createDate).thenComparing(ArchivedThread.Post::id);
+			key = p -> KeysetCursor.of(p.createDate(), p.id());
+			break;
+		}
+		Stream<ArchivedThread.Post> rows = thread.answers().stream();
+		if (cursor != null) {
+			KeysetCursor after = KeysetCursor.parse(cursor);
+			ArchivedThread.Post probe = sort == AnswerSort.VOTES
+					? new ArchivedThread.Post(after.id(), null, null, null, null, null, after.intKey(), List.of())
+					: new ArchivedThread.Post(after.id(), null, null, null, after.dateKey(), null, 0, List.of());
+			Comparator<ArchivedThread.Post> comparator = order;
+			rows = rows.filter(p -> comparator.compare(p, probe) > 0);
+		}
+		return KeysetPage.of(rows.sorted(order).limit(size + 1L).toList(), size, key);
+	}
+
+	// 원래 ID 를 그대로 써서 답변과 추천을 다시 넣고 stub 을 일반 질문으로 되돌린다.
+	// 같은 스레드에 쓰기가 동시에 오면 질문 행을 잠그고 다시 읽어서, 먼저 복원한 요청이 있으면 아무것도 하지 않는다
+	@Transactional
+	public void restore(Question question) {
+		this.entityManager.refresh(question, LockModeType.PESSIMISTIC_WRITE);
+		if (question.getArchiveDate() == null) {
+			return;
+		}
+		ArchivedThread thread = load(question);
+		Set<Long> userIds = new HashSet<>(thread.voterIds());
+		thread.answers().forEach(a -> userIds.addAll(a.voterIds()));
+		Map<Long, SiteUser> users = this.userRepository.findAllById(userIds).stream()
+				.collect(Collectors.toMap(SiteUser::getId, Function.identity()));
+
+		question.setBody(this.contentStore.write(null, thread.content()));
+		question.setVoter(thread.voterIds().stream().map(users::get).filter(u -> u != null)
+				.collect(Collectors.toCollection(HashSet::new)));
+		question.setArchiveDate(null);
+		this.questionRepository.save(question);
+		this.archivedAnswerRepository.deleteByQuestionId(question.getId());
+
+		for (ArchivedThread.Post post : thread.answers()) {
+			ContentBody body = this.contentBodyRepository.save(this.contentStore.write(null, post.content()));
+			this.answerRepository.insertRestored(post.id(), question.getId(), post.authorId(), post.createDate(),
+					post.modifyDate(), post.voteCount(), body.getId());
+			for (Long voterId : post.voterIds()) {
+				if (users.containsKey(voterId)) {
+					this.answerRepository.insertVoter(post.id(), voterId);
+				}
+			}
+		}
+		this.similarQuestionIndex.put(question.getId(), question.getSubject(), thread.content());
+		log.info("Restored archived question ID: {} ({} answers)", question.getId(), thread.answers().size());
+	}
+
+	// 보관된 답변이면 그 스레드를 복원하고 true
+	@Transactional
+	public boolean restoreAnswer(Integer answerId) {
+		Optional<Question> question = findArchivedQuestion(answerId);
+		if (question.isEmpty()) {
+			return false;
+		}
+		restore(question.get());
+		return true;
+	}
+
+	// 복원하지 않고 보관된 답변을 읽는다, 권한 확인용
+	public Optional<ArchivedThread.Post> findAnswer(Integer answerId) {
+		return findArchivedQuestion(answerId).flatMap(question -> load(question).answers().stream()
+				.filter(post -> post.id().equals(answerId)).findFirst());
+	}
+
+	// 찾은 답변만 ID 로 반환, 삭제된 질문의 답변은 제외하고 스레드마다 세그먼트를 한 번씩 읽는다
+	public Map<Integer, ArchivedThread.Post> findAnswers(Collection<Integer> answerIds) {
+		Map<Integer, Set<Integer>> byQuestion = this.archivedAnswerRepository.findAllById(answerIds).stream()
+				.collect(Collectors.groupingBy(ArchivedAnswer::getQuestionId,
+						Collectors.mapping(ArchivedAnswer::getAnswerId, Collectors.toSet())));
+		Map<Integer, ArchivedThread.Post> found = new HashMap<>();
+		for (Question question : this.questionRepository.findAllById(byQuestion.keySet())) {
+			if (question.getArchiveDate() == null || question.getDeleteDate() != null) {
+				continue;
+			}
+			Set<Integer> wanted = byQuestion.get(question.getId());
+			for (ArchivedThread.Post post : load(question).answers()) {
+				if (wanted.contains(post.id())) {
+					found.put(post.id(), post);
+				}
+			}
+		}
+		return found;
+	}
+
+	// archived_answer 가 생기기 전에 보관된 스레드의 답변 ID 를 archive.idx 에서 한 번 옮겨 둔다
+	@EventListener(ApplicationReadyEvent.class)
+	public void backfillArchivedAnswers() {
+		if (this.archivedAnswerRepository.count() > 0) {
+			return;
+		}
+		TransactionTemplate transactionTemplate = new TransactionTemplate(this.transactionManager);
+		List<int[]> chunk = new ArrayList<>();
+		int[] total = { 0 };
+		try {
+			this.archiveStore.forEachAnswer((answerId, questionId) -> {
+				chunk.add(new int[] { answerId, questionId });
+				if (chunk.size() == 1000) {
+					total[0] += insertArchivedAnswers(transactionTemplate, chunk);
+				}
+			});
+		} catch (IOException e) {
+			log.warn("Failed to read archived answer IDs", e);
+		}
+		total[0] += insertArchivedAnswers(transactionTemplate, chunk);
+		if (total[0] > 0) {
+			log.info("Backfilled {} archived answer IDs", total[0]);
+		}
+	}
+
+	private int insertArchivedAnswers(TransactionTemplate transactionTemplate, List<int[]> chunk) {
+		int size = chunk.size();
+		transactionTemplate.executeWithoutResult(status -> chunk
+				.forEach(pair -> this.archivedAnswerRepository.insertIgnore(pair[0], pair[1])));
+		chunk.clear();
+		return size;
+	}
+
+	private Optional<Question> findArchivedQuestion(Integer answerId) {
+		return this.archivedAnswerRepository.findQuestionId(answerId).flatMap(this.questionRepository::findById)
+				.filter(question -> question.getArchiveDate() != null);
+	}
+
+	private static List<Long> userIds(Set<SiteUser> users) {
+		return users == null ? List.of() : users.stream().map(SiteUser::getId).toList();
+	}
+}
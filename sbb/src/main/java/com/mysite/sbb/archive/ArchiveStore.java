@@ -0,0 +1,346 @@
+package com.mysite.sbb.archive;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.mysite.sbb.IntIntHashMap;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+// 보관된 스레드를 deflate 로 압축해서 append-only 세그먼트 파일에 쓰고 mmap 으로 읽는 저장소.
+// archive.idx 에는 (질문 ID, 세그먼트, offset, 길이, 원본 길이, 답변 ID 목록) 레코드를 순서대로 덧붙이고,
+// 같은 질문의 레코드가 여러 개이면 마지막 레코드가 유효하다.
+// 메모리에는 질문 ID 별 위치만 두고, 답변 ID -> 질문 ID 는 archived_answer 테이블에서 찾는다.
+// 쓰기는 배타 작업인 ThreadArchiveJob 한 곳에서만 하므로 여러 노드가 디렉터리를 공유해도 된다.
+@Slf4j
+@Component
+public class ArchiveStore {
+
+	private static final String INDEX_FILE = "archive.idx";
+	private static final String SEGMENT_PREFIX = "segment-";
+	private static final String SEGMENT_SUFFIX = ".dat";
+	// questionId, segment, offset, length, rawLength, answerCount
+	private static final int HEADER_BYTES = 4 + 4 + 8 + 4 + 4 + 4;
+
+	@Value("${sbb.archive.dir:archive}")
+	private String dir;
+
+	// 한 세그먼트의 최대 크기, 한 번에 mmap 할 수 있도록 2GB 보다 작아야 한다
+	@Value("${sbb.archive.segment-size:268435456}")
+	private int segmentSize;
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Map<Integer, MappedByteBuffer> mapped = new ConcurrentHashMap<>();
+
+	// 질문 ID -> entry 번호
+	private final IntIntHashMap threads = new IntIntHashMap();
+	private int[] segments = new int[1024];
+	private long[] offsets = new long[1024];
+	private int[] lengths = new int[1024];
+	private int[] rawLengths = new int[1024];
+	private int entries;
+	// archive.idx 에서 읽어 들인 위치, find 에서는 lock 없이 읽는다
+	private volatile long indexPosition;
+
+	private FileChannel index;
+	private FileChannel segment;
+	private int segmentNumber;
+
+	public void append(int questionId, int[] answerIds, byte[] data) throws IOException {
+		byte[] compressed = deflate(data);
+		this.lock.writeLock().lock();
+		try {
+			if (this.segment == null || (this.segment.size() > 0
+					&& this.segment.size() + compressed.length > this.segmentSize)) {
+				openSegment();
+			} else {
+				refresh();
+			}
+			long offset = this.segment.size();
+			writeFully(this.segment, ByteBuffer.wrap(compressed), offset);
+			this.segment.force(false);
+
+			ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + 4 * answerIds.length);
+			record.putInt(questionId).putInt(this.segmentNumber).putLong(offset).putInt(compressed.length)
+					.putInt(data.length).putInt(answerIds.length);
+			for (int answerId : answerIds) {
+				record.putInt(answerId);
+			}
+			record.flip();
+			writeFully(this.index, record, this.indexPosition);
+			this.index.force(false);
+			this.indexPosition += record.capacity();
+			add(questionId, this.segmentNumber, offset, compressed.length, data.length);
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	// 압축을 푼 스레드 데이터, 없으면 null
+	public byte[] read(int questionId) throws IOException {
+		int entry = find(questionId);
+		if (entry < 0) {
+			return null;
+		}
+		int segmentNumber;
+		long offset;
+		int length;
+		int rawLength;
+		this.lock.readLock().lock();
+		try {
+			segmentNumber = this.segments[entry];
+			offset = this.offsets[entry];
+			length = this.lengths[entry];
+			rawLength = this.rawLengths[entry];
+		} finally {
+			this.lock.readLock().unlock();
+		}
+		return inflate(slice(segmentNumber, offset, length), rawLength);
+	}
+
+	// archive.idx 의 모든 (답변 ID, 질문 ID), 이미 복원된 스레드의 답변도 포함된다
+	public void forEachAnswer(AnswerConsumer consumer) throws IOException {
+		Path path = dir().resolve(INDEX_FILE);
+		if (!Files.exists(path)) {
+			return;
+		}
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long size = channel.size();
+			DataInputStream in = new DataInputStream(
+					new BufferedInputStream(Channels.newInputStream(channel), 1 << 16));
+			long position = 0;
+			while (position + HEADER_BYTES <= size) {
+				int questionId = in.readInt();
+				in.skipNBytes(4 + 8 + 4 + 4);
+				int answerCount = in.readInt();
+				long end = position + HEADER_BYTES + 4L * answerCount;
+				if (end > size) {
+					break;
+				}
+				for (int i = 0; i < answerCount; i++) {
+					consumer.accept(in.readInt(), questionId);
+				}
+				position = end;
+			}
+		}
+	}
+
+	public int size() {
+		this.lock.readLock().lock();
+		try {
+			return this.threads.size();
+		} finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	@PreDestroy
+	public void close() throws IOException {
+		this.lock.writeLock().lock();
+		try {
+			if (this.segment != null) {
+				this.segment.close();
+				this.segment = null;
+			}
+			if (this.index != null) {
+				this.index.close();
+				this.index = null;
+			}
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	// 없으면 다른 노드가 archive.idx 에 레코드를 덧붙였을 때만 읽어 들인 뒤 한 번 더 찾는다
+	private int find(int questionId) throws IOException {
+		this.lock.readLock().lock();
+		try {
+			int entry = this.threads.get(questionId, -1);
+			if (entry >= 0) {
+				return entry;
+			}
+		} finally {
+			this.lock.readLock().unlock();
+		}
+		Path path = dir().resolve(INDEX_FILE);
+		if (!Files.exists(path) || Files.size(path) <= this.indexPosition) {
+			return -1;
+		}
+		this.lock.writeLock().lock();
+		try {
+			refresh();
+			return this.threads.get(questionId, -1);
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	// 세그먼트 전체를 mmap 하고, 쓰는 중인 세그먼트가 커져서 범위를 벗어나면 다시 map 한다
+	private ByteBuffer slice(int segmentNumber, long offset, int length) throws IOException {
+		MappedByteBuffer buffer = this.mapped.get(segmentNumber);
+		if (buffer == null || buffer.capacity() < offset + length) {
+			try (FileChannel channel = FileChannel.open(segmentPath(segmentNumber), StandardOpenOption.READ)) {
+				buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			}
+			this.mapped.put(segmentNumber, buffer);
+		}
+		return buffer.slice((int) offset, length);
+	}
+
+	// write lock 안에서 호출
+	private void refresh() throws IOException {
+		Path path = dir().resolve(INDEX_FILE);
+		if (!Files.exists(path)) {
+			return;
+		}
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size <= this.indexPosition) {
+				return;
+			}
+			channel.position(this.indexPosition);
+			DataInputStream in = new DataInputStream(
+					new BufferedInputStream(Channels.newInputStream(channel), 1 << 16));
+			long position = this.indexPosition;
+			// 다른 노드가 쓰는 중인 마지막 레코드는 다음에 읽는다
+			while (position + HEADER_BYTES <= size) {
+				int questionId = in.readInt();
+				int segmentNumber = in.readInt();
+				long offset = in.readLong();
+				int length = in.readInt();
+				int rawLength = in.readInt();
+				int answerCount = in.readInt();
+				long end = position + HEADER_BYTES + 4L * answerCount;
+				if (end > size) {
+					break;
+				}
+				in.skipNBytes(4L * answerCount);
+				add(questionId, segmentNumber, offset, length, rawLength);
+				position = end;
+			}
+			this.indexPosition = position;
+		}
+	}
+
+	// 이 노드가 쓰기를 맡을 때마다 새 세그먼트를 만들어서 다른 노드가 쓰던 파일에는 덧붙이지 않는다
+	private void openSegment() throws IOException {
+		Files.createDirectories(dir());
+		if (this.index == null) {
+			this.index = FileChannel.open(dir().resolve(INDEX_FILE), StandardOpenOption.CREATE,
+					StandardOpenOption.WRITE);
+		}
+		refresh();
+		// 중간에 끊긴 레코드가 있으면 잘라낸다
+		this.index.truncate(this.indexPosition);
+		if (this.segment != null) {
+			this.segment.close();
+		}
+		this.segmentNumber = lastSegmentNumber() + 1;
+		this.segment = FileChannel.open(segmentPath(this.segmentNumber), StandardOpenOption.CREATE_NEW,
+				StandardOpenOption.WRITE, StandardOpenOption.READ);
+		log.info("Opened archive segment {}", segmentPath(this.segmentNumber));
+	}
+
+	private int lastSegmentNumber() throws IOException {
+		try (Stream<Path> files = Files.list(dir())) {
+			return files.map(p -> p.getFileName().toString())
+					.filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+					.mapToInt(name -> Integer.parseInt(
+							name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())))
+					.max().orElse(0);
+		}
+	}
+
+	private Path dir() {
+		return Path.of(this.dir);
+	}
+
+	private Path segmentPath(int segmentNumber) {
+		return dir().resolve(String.format("%s%06d%s", SEGMENT_PREFIX, segmentNumber, SEGMENT_SUFFIX));
+	}
+
+	private void add(int questionId, int segmentNumber, long offset, int length, int rawLength) {
+		if (this.entries == this.segments.length) {
+			int capacity = this.entries * 2;
+			this.segments = Arrays.copyOf(this.segments, capacity);
+			this.offsets = Arrays.copyOf(this.offsets, capacity);
+			this.lengths = Arrays.copyOf(this.lengths, capacity);
+			this.rawLengths = Arrays.copyOf(this.rawLengths, capacity);
+		}
+		int entry = this.entries++;
+		this.segments[entry] = segmentNumber;
+		this.offsets[entry] = offset;
+		this.lengths[entry] = length;
+		this.rawLengths[entry] = rawLength;
+		this.threads.put(questionId, entry);
+	}
+
+	private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			position += channel.write(buffer, position);
+		}
+	}
+
+	private static byte[] deflate(byte[] data) {
+		Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+		try {
+			deflater.setInput(data);
+			deflater.finish();
+			ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+			byte[] buffer = new byte[8192];
+			while (!deflater.finished()) {
+				out.write(buffer, 0, deflater.deflate(buffer));
+			}
+			return out.toByteArray();
+		} finally {
+			deflater.end();
+		}
+	}
+
+	// mmap 된 영역에서 바로 압축을 푼다
+	private static byte[] inflate(ByteBuffer data, int rawLength) throws IOException {
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(data);
+			byte[] result = new byte[rawLength];
+			int offset = 0;
+			while (offset < rawLength && !inflater.finished() && !inflater.needsInput()) {
+				offset += inflater.inflate(result, offset, rawLength - offset);
+			}
+			if (offset != rawLength) {
+				throw new IOException("truncated archive entry");
+			}
+			return result;
+		} catch (DataFormatException e) {
+			throw new IOException("corrupted archive entry", e);
+		} finally {
+			inflater.end();
+		}
+	}
+
+	@FunctionalInterface
+	public interface AnswerConsumer {
+		void accept(int answerId, int questionId);
+	}
+}
@@ -0,0 +1,20 @@
+package com.mysite.sbb.archive;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+// 보관된 답변 ID -> 질문 ID, 답변 ID 로 보관된 스레드를 찾을 때 사용
+@Getter
+@Setter
+@Entity
+@Table(indexes = @Index(name = "idx_archived_answer_question", columnList = "question_id"))
+public class ArchivedAnswer {
+	@Id
+	private Integer answerId;
+
+	private Integer questionId;
+}
@@ -0,0 +1,29 @@
+package com.mysite.sbb.archive;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ArchivedAnswerRepository extends JpaRepository<ArchivedAnswer, Integer> {
+
+	@Query("select a.questionId from ArchivedAnswer a where a.answerId = :answerId")
+	Optional<Integer> findQuestionId(@Param("answerId") Integer answerId);
+
+	// 스레드의 답변을 테이블에서 지우기 전에 호출
+	@Modifying
+	@Query(value = "insert ignore into archived_answer (answer_id, question_id) "
+			+ "select id, question_id from answer where question_id = :questionId", nativeQuery = true)
+	int insertByQuestionId(@Param("questionId") Integer questionId);
+
+	@Modifying
+	@Query(value = "insert ignore into archived_answer (answer_id, question_id) values (:answerId, :questionId)",
+			nativeQuery = true)
+	int insertIgnore(@Param("answerId") Integer answerId, @Param("questionId") Integer questionId);
+
+	@Modifying
+	@Query("delete from ArchivedAnswer a where a.questionId = :questionId")
+	int deleteByQuestionId(@Param("questionId") Integer questionId);
+}
@@ -0,0 +1,13 @@
+package com.mysite.sbb.archive;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// archive 세그먼트에 JSON 으로 저장하는 질문 스레드 하나
+public record ArchivedThread(Integer id, String content, List<Long> voterIds, List<Post> answers,
+		LocalDateTime archiveDate) {
+
+	public record Post(Integer id, String content, Long authorId, String authorUsername, LocalDateTime createDate,
+			LocalDateTime modifyDate, int voteCount, List<Long> voterIds) {
+	}
+}
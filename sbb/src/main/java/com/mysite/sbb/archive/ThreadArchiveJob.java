@@ -0,0 +1,73 @@
+package com.mysite.sbb.archive;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.support.PeriodicTrigger;
+import org.springframework.stereotype.Component;
+
+import com.mysite.sbb.job.ChunkedJob;
+import com.mysite.sbb.question.QuestionRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// inactive-after 동안 작성/수정이 없는 스레드를 archive 세그먼트로 옮기는 작업.
+// 세그먼트는 로컬 디스크에 쓰므로 노드가 여러 개이면 sbb.archive.dir 을 공유 스토리지로 지정해야 한다.
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class ThreadArchiveJob extends ChunkedJob {
+
+	private final ArchiveService archiveService;
+	private final QuestionRepository questionRepository;
+
+	@Value("${sbb.archive.enabled:false}")
+	private boolean enabled;
+
+	@Value("${sbb.archive.inactive-after:P730D}")
+	private Duration inactiveAfter;
+
+	@Value("${sbb.archive.interval:PT1H}")
+	private Duration interval;
+
+	@Override
+	public String getName() {
+		return "thread-archive";
+	}
+
+	@Override
+	public Trigger getTrigger() {
+		return new PeriodicTrigger(this.interval);
+	}
+
+	// 스레드마다 트랜잭션을 나누므로 chunk 는 작게
+	@Override
+	protected int getChunkSize() {
+		return 100;
+	}
+
+	@Override
+	protected List<Integer> nextChunk(int afterId, int size) {
+		if (!this.enabled) {
+			return List.of();
+		}
+		LocalDateTime cutoff = LocalDateTime.now().minus(this.inactiveAfter);
+		return this.questionRepository.findArchivableIdsAfter(afterId, cutoff, PageRequest.of(0, size));
+	}
+
+	@Override
+	protected void process(List<Integer> ids) {
+		int archived = 0;
+		for (Integer id : ids) {
+			if (this.archiveService.archive(id)) {
+				archived++;
+			}
+		}
+		log.info("Archived {} of {} questions", archived, ids.size());
+	}
+}
@@ -0,0 +1,151 @@
+package com.mysite.sbb.content;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Transient;
+import lombok.Getter;
+
+// 질문/답변 본문. 질문/답변 행과 분리해서 필요할 때만 읽고,
+// compressThreshold 바이트 이상이면 deflate 로 압축해서 compressed 에, 아니면 plain 에 저장한다.
+// 압축한 본문은 키워드 검색을 위해 앞 SEARCH_PREFIX_CHARS 글자를 searchPrefix 에 따로 남기므로
+// 이보다 짧은 본문은 크기와 상관없이 압축하지 않는다 (같은 내용을 두 번 저장하지 않도록).
+@Getter
+@Entity
+public class ContentBody {
+	public static final int SEARCH_PREFIX_CHARS = 4096;
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(columnDefinition = "TEXT")
+	private String plain;
+
+	@Column(columnDefinition = "LONGBLOB")
+	private byte[] compressed;
+
+	// 압축한 본문의 앞부분, plain 에 저장한 본문이면 null
+	@Column(columnDefinition = "TEXT")
+	private String searchPrefix;
+
+	// UTF-8 기준 원본 크기
+	private int length;
+
+	@Transient
+	private String inflated;
+
+	public String getText() {
+		if (this.plain != null) {
+			return this.plain;
+		}
+		if (this.inflated == null && this.compressed != null) {
+			this.inflated = inflate(this.compressed, this.length);
+		}
+		return this.inflated;
+	}
+
+	void setText(String text, int compressThreshold) {
+		byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+		this.length = utf8.length;
+		if (utf8.length >= compressThreshold && text.length() > SEARCH_PREFIX_CHARS) {
+			this.plain = null;
+			this.compressed = deflate(utf8);
+			this.searchPrefix = prefix(text);
+			this.inflated = text;
+		} else {
+			this.plain = text;
+			this.compressed = null;
+			this.searchPrefix = null;
+			this.inflated = null;
+		}
+	}
+
+	// searchPrefix 가 생기기 전에 압축된 본문에 채워 넣고,
+	// 앞부분이 본문 전체인 짧은 압축 본문은 plain 으로 되돌린다
+	void fillSearchPrefix() {
+		if (this.compressed == null) {
+			return;
+		}
+		String text = getText();
+		if (text.length() <= SEARCH_PREFIX_CHARS) {
+			this.plain = text;
+			this.compressed = null;
+			this.searchPrefix = null;
+			this.inflated = null;
+		} else if (this.searchPrefix == null) {
+			this.searchPrefix = prefix(text);
+		}
+	}
+
+	// 엔티티를 읽지 않고 컬럼 값만 조회한 경우에 사용
+	public static String text(String plain, byte[] compressed, int length) {
+		if (plain != null || compressed == null) {
+			return plain;
+		}
+		return inflate(compressed, length);
+	}
+
+	private static String prefix(String text) {
+		if (text.length() <= SEARCH_PREFIX_CHARS) {
+			return text;
+		}
+		int end = SEARCH_PREFIX_CHARS;
+		if (Character.isHighSurrogate(text.charAt(end - 1))) {
+			end--;
+		}
+		return text.substring(0, end);
+	}
+
+	private static byte[] deflate(byte[] data) {
+		Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+		try {
+			deflater.setInput(data);
+			deflater.finish();
+			ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2);
+			byte[] buffer = new byte[8192];
+			while (!deflater.finished()) {
+				out.write(buffer, 0, deflater.deflate(buffer));
+			}
+			return out.toByteArray();
+		} finally {
+			deflater.end();
+		}
+	}
+
+	// 원본 크기만큼 풀리고 deflate 스트림도 끝나야 정상, 잘리거나 손상된 본문은 일부만 반환하지 않는다
+	private static String inflate(byte[] data, int length) {
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(data);
+			byte[] result = new byte[length];
+			int offset = 0;
+			while (offset < length) {
+				int inflated = inflater.inflate(result, offset, length - offset);
+				if (inflated == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+					break;
+				}
+				offset += inflated;
+			}
+			if (offset == length && !inflater.finished() && inflater.inflate(new byte[1]) > 0) {
+				throw new IllegalStateException("content body longer than " + length + " bytes");
+			}
+			if (offset != length || !inflater.finished()) {
+				throw new IllegalStateException("truncated content body: " + offset + " of " + length + " bytes");
+			}
+			return new String(result, StandardCharsets.UTF_8);
+		} catch (DataFormatException e) {
+			throw new IllegalStateException("corrupted content body", e);
+		} finally {
+			inflater.end();
+		}
+	}
+}
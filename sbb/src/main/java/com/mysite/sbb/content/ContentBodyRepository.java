@@ -0,0 +1,17 @@
+package com.mysite.sbb.content;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ContentBodyRepository extends JpaRepository<ContentBody, Long> {
+
+	// search_prefix 가 없거나, 본문 전체가 search_prefix 에 들어 있어서 압축할 필요가 없는 압축 본문
+	@Query(value = "select id from content_body where compressed is not null "
+			+ "and (search_prefix is null or length(search_prefix) = `length`) and id > :afterId order by id",
+			nativeQuery = true)
+	List<Long> findMissingSearchPrefixIdsAfter(@Param("afterId") long afterId, Pageable pageable);
+}
@@ -0,0 +1,57 @@
+package com.mysite.sbb.content;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.support.PeriodicTrigger;
+import org.springframework.stereotype.Component;
+
+import com.mysite.sbb.job.Job;
+import com.mysite.sbb.job.JobContext;
+
+import lombok.RequiredArgsConstructor;
+
+// search_prefix 컬럼이 생기기 전에 압축된 본문에 검색용 앞부분을 채우는 작업.
+// content_body ID 는 long 이라 ChunkedJob 의 int checkpoint 에 담을 수 없으므로 checkpoint 없이
+// 처리한 행이 조회 조건에서 빠지는 것을 이용해 매번 처음부터 남은 행만 읽는다.
+@RequiredArgsConstructor
+@Component
+public class ContentSearchPrefixJob implements Job {
+
+	private static final int CHUNK_SIZE = 500;
+	private static final int MAX_CHUNKS = 200;
+
+	private final ContentStore contentStore;
+	private final ContentBodyRepository contentBodyRepository;
+
+	@Value("${sbb.content.migration-interval:PT5M}")
+	private Duration interval;
+
+	@Override
+	public String getName() {
+		return "content-search-prefix";
+	}
+
+	@Override
+	public Trigger getTrigger() {
+		return new PeriodicTrigger(this.interval);
+	}
+
+	// 한 번에 최대 MAX_CHUNKS 개 chunk, 나머지는 다음 실행에서 처리
+	@Override
+	public void execute(JobContext context) {
+		long afterId = 0;
+		for (int i = 0; i < MAX_CHUNKS; i++) {
+			List<Long> ids = this.contentBodyRepository.findMissingSearchPrefixIdsAfter(afterId,
+					PageRequest.of(0, CHUNK_SIZE));
+			if (ids.isEmpty()) {
+				return;
+			}
+			this.contentStore.fillSearchPrefix(ids);
+			afterId = ids.get(ids.size() - 1);
+		}
+	}
+}
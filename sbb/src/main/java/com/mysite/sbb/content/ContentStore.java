@@ -0,0 +1,40 @@
+package com.mysite.sbb.content;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class ContentStore {
+
+	private final ContentBodyRepository contentBodyRepository;
+
+	@Value("${sbb.content.compress-threshold:16384}")
+	private int compressThreshold;
+
+	// body 가 없으면 새로 만들고, 있으면 내용을 바꿔서 반환
+	public ContentBody write(ContentBody body, String text) {
+		ContentBody target = body == null ? new ContentBody() : body;
+		target.setText(text, this.compressThreshold);
+		return target;
+	}
+
+	// 압축을 풀 수 없는 본문은 건너뛰어서 한 행 때문에 나머지가 멈추지 않게 한다
+	@Transactional
+	public void fillSearchPrefix(List<Long> ids) {
+		for (ContentBody body : this.contentBodyRepository.findAllById(ids)) {
+			try {
+				body.fillSearchPrefix();
+			} catch (IllegalStateException e) {
+				log.warn("Skipped content body ID: {}", body.getId(), e);
+			}
+		}
+	}
+}
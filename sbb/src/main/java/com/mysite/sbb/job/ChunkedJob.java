@@ -0,0 +1,36 @@
+package com.mysite.sbb.job;
+
+import java.util.List;
+
+// ID 범위를 chunk 단위로 순회하면서 chunk 마다 checkpoint 를 남기는 작업
+public abstract class ChunkedJob implements Job {
+
+	// afterId 보다 큰 ID 를 오름차순으로 최대 size 개 반환
+	protected abstract List<Integer> nextChunk(int afterId, int size);
+
+	protected abstract void process(List<Integer> ids);
+
+	protected int getChunkSize() {
+		return 500;
+	}
+
+	// 한 번 실행할 때 처리할 최대 chunk 수, 나머지는 다음 실행에서 checkpoint 부터 이어서 처리
+	protected int getMaxChunks() {
+		return 200;
+	}
+
+	@Override
+	public void execute(JobContext context) {
+		int afterId = context.getCheckpoint();
+		for (int i = 0; i < getMaxChunks(); i++) {
+			List<Integer> ids = nextChunk(afterId, getChunkSize());
+			if (ids.isEmpty()) {
+				context.checkpoint(0);
+				return;
+			}
+			process(ids);
+			afterId = ids.get(ids.size() - 1);
+			context.checkpoint(afterId);
+		}
+	}
+}
@@ -0,0 +1,19 @@
+package com.mysite.sbb.job;
+
+import org.springframework.scheduling.Trigger;
+
+// JobScheduler 가 실행하는 백그라운드 작업
+public interface Job {
+
+	String getName();
+
+	// CronTrigger 또는 PeriodicTrigger
+	Trigger getTrigger();
+
+	void execute(JobContext context);
+
+	// true 이면 job_lease 테이블의 lease 를 얻은 노드 하나에서만 실행, false 이면 모든 노드에서 실행
+	default boolean isExclusive() {
+		return true;
+	}
+}
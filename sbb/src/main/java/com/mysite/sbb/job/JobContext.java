@@ -0,0 +1,9 @@
+package com.mysite.sbb.job;
+
+public interface JobContext {
+
+	// 마지막으로 처리한 ID, 처음부터 시작해야 하면 0
+	int getCheckpoint();
+
+	void checkpoint(int lastId);
+}
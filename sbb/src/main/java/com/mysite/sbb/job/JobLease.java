@@ -0,0 +1,25 @@
+package com.mysite.sbb.job;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Entity
+public class JobLease {
+	@Id
+	@Column(length = 100)
+	private String name;
+
+	@Column(length = 200)
+	private String owner;
+
+	private LocalDateTime leaseUntil;
+
+	private int checkpoint;
+}
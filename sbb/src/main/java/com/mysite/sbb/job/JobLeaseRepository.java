@@ -0,0 +1,36 @@
+package com.mysite.sbb.job;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+	@Transactional
+	@Modifying
+	@Query("update JobLease l set l.owner = :owner, l.leaseUntil = :until "
+			+ "where l.name = :name and (l.owner = :owner or l.leaseUntil is null or l.leaseUntil < :now)")
+	int acquire(@Param("name") String name, @Param("owner") String owner, @Param("now") LocalDateTime now,
+			@Param("until") LocalDateTime until);
+
+	@Transactional
+	@Modifying
+	@Query("update JobLease l set l.checkpoint = :checkpoint, l.leaseUntil = :until "
+			+ "where l.name = :name and l.owner = :owner")
+	int checkpoint(@Param("name") String name, @Param("owner") String owner, @Param("checkpoint") int checkpoint,
+			@Param("until") LocalDateTime until);
+
+	@Transactional
+	@Modifying
+	@Query("update JobLease l set l.leaseUntil = :until where l.name = :name and l.owner = :owner")
+	int renew(@Param("name") String name, @Param("owner") String owner, @Param("until") LocalDateTime until);
+
+	@Transactional
+	@Modifying
+	@Query("update JobLease l set l.leaseUntil = null where l.name = :name and l.owner = :owner")
+	int release(@Param("name") String name, @Param("owner") String owner);
+}
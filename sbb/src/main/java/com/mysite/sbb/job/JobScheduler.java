@@ -0,0 +1,193 @@
+package com.mysite.sbb.job;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class JobScheduler {
+
+	private final List<Job> jobs;
+	private final JobLeaseRepository jobLeaseRepository;
+	private final MeterRegistry meterRegistry;
+
+	private final String owner = hostName() + "-" + UUID.randomUUID();
+	private final Map<String, AtomicLong> lastSuccess = new ConcurrentHashMap<>();
+	private final Map<String, AtomicInteger> localCheckpoints = new ConcurrentHashMap<>();
+	private ThreadPoolTaskScheduler taskScheduler;
+	// job 스레드가 모두 바빠도 lease 연장이 밀리지 않도록 따로 둔다
+	private ThreadPoolTaskScheduler heartbeatScheduler;
+
+	@Value("${sbb.job.enabled:true}")
+	private boolean enabled;
+
+	@Value("${sbb.job.pool-size:2}")
+	private int poolSize;
+
+	@Value("${sbb.job.lease-ttl:PT10M}")
+	private Duration leaseTtl;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		if (!this.enabled) {
+			log.info("Background jobs are disabled");
+			return;
+		}
+		this.taskScheduler = new ThreadPoolTaskScheduler();
+		this.taskScheduler.setPoolSize(this.poolSize);
+		this.taskScheduler.setThreadNamePrefix("sbb-job-");
+		this.taskScheduler.setWaitForTasksToCompleteOnShutdown(true);
+		this.taskScheduler.initialize();
+		this.heartbeatScheduler = new ThreadPoolTaskScheduler();
+		this.heartbeatScheduler.setPoolSize(1);
+		this.heartbeatScheduler.setThreadNamePrefix("sbb-job-lease-");
+		this.heartbeatScheduler.initialize();
+		for (Job job : this.jobs) {
+			AtomicLong success = new AtomicLong(System.currentTimeMillis());
+			this.lastSuccess.put(job.getName(), success);
+			// 마지막으로 성공한 시점부터 지난 시간(초)
+			Gauge.builder("sbb.job.lag", success, s -> (System.currentTimeMillis() - s.get()) / 1000.0)
+					.tag("job", job.getName())
+					.register(this.meterRegistry);
+			this.taskScheduler.schedule(() -> run(job), job.getTrigger());
+			log.info("Scheduled job {} (exclusive: {})", job.getName(), job.isExclusive());
+		}
+	}
+
+	@PreDestroy
+	public void stop() {
+		if (this.taskScheduler != null) {
+			this.taskScheduler.shutdown();
+		}
+		if (this.heartbeatScheduler != null) {
+			this.heartbeatScheduler.shutdown();
+		}
+	}
+
+	private void run(Job job) {
+		String name = job.getName();
+		try {
+			if (job.isExclusive() && !acquire(name)) {
+				log.debug("Skipping job {}, lease is held by another node", name);
+				return;
+			}
+		} catch (Exception e) {
+			failed(name, e);
+			return;
+		}
+		Timer.Sample sample = Timer.start(this.meterRegistry);
+		// checkpoint 를 남기지 않는 job 도 lease 가 만료되지 않도록 ttl 의 1/3 마다 연장
+		ScheduledFuture<?> heartbeat = null;
+		try {
+			if (job.isExclusive()) {
+				Duration period = this.leaseTtl.dividedBy(3);
+				heartbeat = this.heartbeatScheduler.scheduleAtFixedRate(() -> renew(name),
+						Instant.now().plus(period), period);
+			}
+			job.execute(new Context(job));
+			this.lastSuccess.get(name).set(System.currentTimeMillis());
+		} catch (Exception e) {
+			failed(name, e);
+		} finally {
+			sample.stop(this.meterRegistry.timer("sbb.job.duration", "job", name));
+			if (heartbeat != null) {
+				heartbeat.cancel(false);
+			}
+			if (job.isExclusive()) {
+				try {
+					this.jobLeaseRepository.release(name, this.owner);
+				} catch (Exception e) {
+					failed(name, e);
+				}
+			}
+		}
+	}
+
+	private void failed(String name, Exception e) {
+		this.meterRegistry.counter("sbb.job.failures", "job", name).increment();
+		log.error("Job {} failed", name, e);
+	}
+
+	private void renew(String name) {
+		try {
+			if (this.jobLeaseRepository.renew(name, this.owner, LocalDateTime.now().plus(this.leaseTtl)) == 0) {
+				log.warn("Lease of job {} is held by another node", name);
+			}
+		} catch (Exception e) {
+			log.warn("Failed to renew lease of job {}", name, e);
+		}
+	}
+
+	private boolean acquire(String name) {
+		if (!this.jobLeaseRepository.existsById(name)) {
+			JobLease lease = new JobLease();
+			lease.setName(name);
+			try {
+				this.jobLeaseRepository.saveAndFlush(lease);
+			} catch (DataAccessException e) {
+				log.debug("Lease row for job {} was created by another node", name);
+			}
+		}
+		LocalDateTime now = LocalDateTime.now();
+		return this.jobLeaseRepository.acquire(name, this.owner, now, now.plus(this.leaseTtl)) == 1;
+	}
+
+	private static String hostName() {
+		try {
+			return InetAddress.getLocalHost().getHostName();
+		} catch (UnknownHostException e) {
+			return "unknown";
+		}
+	}
+
+	private class Context implements JobContext {
+		private final Job job;
+
+		Context(Job job) {
+			this.job = job;
+		}
+
+		@Override
+		public int getCheckpoint() {
+			if (!this.job.isExclusive()) {
+				return localCheckpoints.computeIfAbsent(this.job.getName(), k -> new AtomicInteger()).get();
+			}
+			return jobLeaseRepository.findById(this.job.getName()).map(JobLease::getCheckpoint).orElse(0);
+		}
+
+		@Override
+		public void checkpoint(int lastId) {
+			if (!this.job.isExclusive()) {
+				localCheckpoints.computeIfAbsent(this.job.getName(), k -> new AtomicInteger()).set(lastId);
+				return;
+			}
+			// checkpoint 를 남길 때마다 lease 도 연장
+			jobLeaseRepository.checkpoint(this.job.getName(), owner, lastId, LocalDateTime.now().plus(leaseTtl));
+		}
+	}
+}
@@ -0,0 +1,12 @@
+package com.mysite.sbb.question;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class HotQuestionDTO {
+    private Integer id;
+    private String subject;
+    private double score;
+}
@@ -0,0 +1,211 @@
+package com.mysite.sbb.question;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.mysite.sbb.Transactions;
+import com.mysite.sbb.answer.AnswerRepository;
+import com.mysite.sbb.answer.HotAnswerSource;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// 투표/답변 이벤트에 시간 감쇠 점수를 매겨 상위 질문을 메모리에 유지하는 인덱스.
+// 점수는 log 공간에서 누적한다: 이벤트 하나는 log(weight) + (t - EPOCH) / decay 이고,
+// 현재 점수는 exp(logScore - (now - EPOCH) / decay) 이다. 모든 질문이 같은 비율로 감쇠하므로
+// 순위를 다시 계산할 필요가 없다.
+// 추천은 언제 했는지 저장되지 않으므로 rebuild 와 같게 질문 작성 시점에 점수를 매긴다.
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class HotQuestionIndex {
+
+	private static final double CREATE_WEIGHT = 1.0;
+	private static final double VOTE_WEIGHT = 1.0;
+	private static final double ANSWER_WEIGHT = 2.0;
+	private static final LocalDateTime EPOCH = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+	private final QuestionRepository questionRepository;
+	private final AnswerRepository answerRepository;
+
+	@Value("${sbb.hot.decay-hours:24}")
+	private double decayHours;
+
+	@Value("${sbb.hot.window-days:7}")
+	private int windowDays;
+
+	@Value("${sbb.hot.capacity:10000}")
+	private int capacity;
+
+	private volatile Ranking ranking = new Ranking();
+
+	// rebuild 중에 들어온 변경, rebuild 가 끝나면 새 순위에 다시 적용한다 (lock 으로 보호)
+	private final Object lock = new Object();
+	private List<Consumer<Ranking>> pending;
+
+	public void recordCreate(Question question) {
+		Integer id = question.getId();
+		String subject = question.getSubject();
+		LocalDateTime createDate = question.getCreateDate();
+		apply(r -> record(r, id, subject, CREATE_WEIGHT, createDate));
+	}
+
+	// rebuild 는 windowDays 안에 작성된 질문의 추천만 세므로 그보다 오래된 질문은 제외
+	public void recordVote(Question question) {
+		Integer id = question.getId();
+		String subject = question.getSubject();
+		LocalDateTime createDate = question.getCreateDate();
+		if (createDate == null || createDate.isBefore(LocalDateTime.now().minusDays(this.windowDays))) {
+			return;
+		}
+		apply(r -> record(r, id, subject, VOTE_WEIGHT, createDate));
+	}
+
+	public void recordAnswer(Question question) {
+		Integer id = question.getId();
+		String subject = question.getSubject();
+		LocalDateTime now = LocalDateTime.now();
+		apply(r -> record(r, id, subject, ANSWER_WEIGHT, now));
+	}
+
+	public void rename(Integer id, String subject) {
+		apply(r -> r.rename(id, subject));
+	}
+
+	public void remove(Integer id) {
+		apply(r -> r.remove(id));
+	}
+
+	public List<HotQuestionDTO> top(int size) {
+		double now = decayed(LocalDateTime.now());
+		List<HotQuestionDTO> result = new ArrayList<>(size);
+		for (Entry entry : this.ranking.order) {
+			if (result.size() == size) {
+				break;
+			}
+			HotQuestionDTO dto = new HotQuestionDTO();
+			dto.setId(entry.id());
+			dto.setSubject(entry.subject());
+			dto.setScore(Math.exp(entry.logScore() - now));
+			result.add(dto);
+		}
+		return result;
+	}
+
+	// 최근 windowDays 동안의 질문과 답변을 한 번씩 스트리밍해서 새 순위를 만든 뒤 교체.
+	// 스트리밍하는 동안 들어온 변경은 교체 직전에 새 순위에도 적용한다.
+	// 스트림이 이미 읽은 변경이면 한 번 더 더해지지만, 다음 rebuild 에서 바로잡힌다.
+	@Transactional(readOnly = true)
+	@EventListener(ApplicationReadyEvent.class)
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	public synchronized void rebuild() {
+		long start = System.currentTimeMillis();
+		LocalDateTime since = LocalDateTime.now().minusDays(this.windowDays);
+		Ranking rebuilt = new Ranking();
+		synchronized (this.lock) {
+			this.pending = new ArrayList<>();
+		}
+		try {
+			try (Stream<HotQuestionSource> questions = this.questionRepository.streamHotSources(since)) {
+				questions.forEach(q -> record(rebuilt, q.getId(), q.getSubject(),
+						CREATE_WEIGHT + VOTE_WEIGHT * q.getVoteCount(), q.getCreateDate()));
+			}
+			try (Stream<HotAnswerSource> answers = this.answerRepository.streamHotSources(since)) {
+				answers.forEach(
+						a -> record(rebuilt, a.getQuestionId(), a.getSubject(), ANSWER_WEIGHT, a.getCreateDate()));
+			}
+			synchronized (this.lock) {
+				this.pending.forEach(change -> change.accept(rebuilt));
+				this.ranking = rebuilt;
+			}
+		} finally {
+			synchronized (this.lock) {
+				this.pending = null;
+			}
+		}
+		log.info("Rebuilt hot question index with {} entries in {} ms", rebuilt.entries.size(),
+				System.currentTimeMillis() - start);
+	}
+
+	// 트랜잭션 안에서 호출하면 커밋된 뒤에 반영하고 롤백되면 버린다
+	private void apply(Consumer<Ranking> change) {
+		Transactions.afterCommit(() -> {
+			synchronized (this.lock) {
+				change.accept(this.ranking);
+				if (this.pending != null) {
+					this.pending.add(change);
+				}
+			}
+		});
+	}
+
+	private void record(Ranking target, Integer id, String subject, double weight, LocalDateTime at) {
+		target.add(id, subject, Math.log(weight) + decayed(at), this.capacity);
+	}
+
+	private double decayed(LocalDateTime at) {
+		return Duration.between(EPOCH, at).toSeconds() / (this.decayHours * 3600);
+	}
+
+	private record Entry(Integer id, String subject, double logScore) {
+	}
+
+	private static class Ranking {
+		private static final Comparator<Entry> ORDER = Comparator.comparingDouble(Entry::logScore).reversed()
+				.thenComparing(Entry::id);
+
+		// 읽기는 잠금 없이 order 를 순회하고, 쓰기는 synchronized 로 order 와 entries 를 함께 갱신
+		private final ConcurrentSkipListSet<Entry> order = new ConcurrentSkipListSet<>(ORDER);
+		private final Map<Integer, Entry> entries = new HashMap<>();
+
+		synchronized void add(Integer id, String subject, double logWeight, int capacity) {
+			Entry old = this.entries.get(id);
+			double logScore = logWeight;
+			if (old != null) {
+				this.order.remove(old);
+				double max = Math.max(old.logScore(), logWeight);
+				logScore = max + Math.log1p(Math.exp(Math.min(old.logScore(), logWeight) - max));
+			}
+			Entry entry = new Entry(id, subject, logScore);
+			this.entries.put(id, entry);
+			this.order.add(entry);
+			if (this.entries.size() > capacity) {
+				Entry last = this.order.pollLast();
+				this.entries.remove(last.id());
+			}
+		}
+
+		synchronized void rename(Integer id, String subject) {
+			Entry old = this.entries.get(id);
+			if (old != null) {
+				this.order.remove(old);
+				Entry entry = new Entry(id, subject, old.logScore());
+				this.entries.put(id, entry);
+				this.order.add(entry);
+			}
+		}
+
+		synchronized void remove(Integer id) {
+			Entry old = this.entries.remove(id);
+			if (old != null) {
+				this.order.remove(old);
+			}
+		}
+	}
+}
@@ -0,0 +1,47 @@
+package com.mysite.sbb.question;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.support.PeriodicTrigger;
+import org.springframework.stereotype.Component;
+
+import com.mysite.sbb.job.Job;
+import com.mysite.sbb.job.JobContext;
+
+import lombok.RequiredArgsConstructor;
+
+// 각 노드의 HotQuestionIndex 를 DB 와 주기적으로 다시 맞추는 작업
+@RequiredArgsConstructor
+@Component
+public class HotQuestionRebuildJob implements Job {
+
+	private final HotQuestionIndex hotQuestionIndex;
+
+	@Value("${sbb.hot.rebuild-interval:PT30M}")
+	private Duration interval;
+
+	@Override
+	public String getName() {
+		return "hot-question-rebuild";
+	}
+
+	@Override
+	public Trigger getTrigger() {
+		PeriodicTrigger trigger = new PeriodicTrigger(this.interval);
+		trigger.setInitialDelay(this.interval);
+		return trigger;
+	}
+
+	@Override
+	public void execute(JobContext context) {
+		this.hotQuestionIndex.rebuild();
+	}
+
+	// 인덱스가 노드마다 메모리에 있으므로 모든 노드에서 실행
+	@Override
+	public boolean isExclusive() {
+		return false;
+	}
+}
@@ -2,27 +2,42 @@ package com.mysite.sbb.question;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
 import com.mysite.sbb.answer.Answer;
+import com.mysite.sbb.content.ContentBody;
+import com.mysite.sbb.tag.Tag;
 import com.mysite.sbb.user.SiteUser;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
+import jakarta.persistence.ConstraintMode;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
 
 @Getter
 @Setter
 @Entity
+@Table(indexes = { @Index(name = "idx_question_create_date", columnList = "create_date"),
+		@Index(name = "idx_question_author_create_date", columnList = "author_id, create_date, id"),
+		@Index(name = "idx_question_modify_date", columnList = "modify_date"),
+		@Index(name = "idx_question_delete_date", columnList = "delete_date") })
 public class Question {
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -31,8 +46,14 @@ public class Question {
 	@Column(length = 200)
 	private String subject;
 
-	@Column(columnDefinition = "TEXT")
-	private String content;
+	// 본문은 content_body 에 따로 저장하고 getContent() 를 호출할 때 읽는다
+	@OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL)
+	@JoinColumn(name = "body_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+	private ContentBody body;
+
+	// body 로 옮기기 전의 본문 컬럼, QuestionContentMigrationJob 이 옮기고 나면 null
+	@Column(name = "content", columnDefinition = "TEXT")
+	private String legacyContent;
 
 	private LocalDateTime createDate;
 
@@ -45,7 +66,25 @@ public class Question {
 	private LocalDateTime modifyDate;
 	
 	@ManyToMany
+	@JoinTable(name = "question_voter", joinColumns = @JoinColumn(name = "question_id"),
+			inverseJoinColumns = @JoinColumn(name = "voter_id"),
+			indexes = @Index(name = "idx_question_voter_voter", columnList = "voter_id, question_id"))
     Set<SiteUser> voter;
 
 	private int voteCount;
+
+	@ManyToMany
+	@JoinTable(name = "question_tag", joinColumns = @JoinColumn(name = "question_id"),
+			inverseJoinColumns = @JoinColumn(name = "tag_id"),
+			indexes = @Index(name = "idx_question_tag_tag", columnList = "tag_id, question_id"))
+	private Set<Tag> tags = new HashSet<>();
+
+	private LocalDateTime deleteDate;
+
+	// null 이 아니면 본문, 추천인과 답변은 archive 세그먼트에 있고 이 행은 제목만 남은 stub
+	private LocalDateTime archiveDate;
+
+	public String getContent() {
+		return this.body != null ? this.body.getText() : this.legacyContent;
+	}
 }
@@ -0,0 +1,46 @@
+package com.mysite.sbb.question;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.support.PeriodicTrigger;
+import org.springframework.stereotype.Component;
+
+import com.mysite.sbb.job.ChunkedJob;
+
+import lombok.RequiredArgsConstructor;
+
+// question.content 컬럼에 남아 있는 본문을 content_body 로 옮기는 작업
+@RequiredArgsConstructor
+@Component
+public class QuestionContentMigrationJob extends ChunkedJob {
+
+	private final QuestionService questionService;
+	private final QuestionRepository questionRepository;
+
+	@Value("${sbb.content.migration-interval:PT5M}")
+	private Duration interval;
+
+	@Override
+	public String getName() {
+		return "question-content-migration";
+	}
+
+	@Override
+	public Trigger getTrigger() {
+		return new PeriodicTrigger(this.interval);
+	}
+
+	@Override
+	protected List<Integer> nextChunk(int afterId, int size) {
+		return this.questionRepository.findLegacyContentIdsAfter(afterId, PageRequest.of(0, size));
+	}
+
+	@Override
+	protected void process(List<Integer> ids) {
+		this.questionService.migrateContent(ids);
+	}
+}
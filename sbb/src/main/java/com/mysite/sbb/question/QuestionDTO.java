@@ -16,5 +16,12 @@ public class QuestionDTO {
     private LocalDateTime createDate;
     private String authorUsername;
     private LocalDateTime modifyDate;
+    private List<String> tags;
+    // 답변은 첫 페이지만 포함, 나머지는 /api/questions/{id}/answers?cursor={nextAnswerCursor}
     private List<AnswerDTO> answerList;
+    // 여러 ID 조회에서 answerCount=false 이면 null
+    private Long answerCount;
+    private String nextAnswerCursor;
+    // true 이면 archive 에서 읽은 스레드, 목록과 검색에서는 제목만 대상
+    private boolean archived;
 }
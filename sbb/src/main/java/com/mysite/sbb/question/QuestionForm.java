@@ -1,5 +1,7 @@
 package com.mysite.sbb.question;
 
+import java.util.List;
+
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Size;
 
@@ -15,4 +17,8 @@ public class QuestionForm {
 
 	@NotEmpty(message = "내용은 필수항목입니다.")
 	private String content;
+
+	// null 이면 수정할 때 기존 태그를 유지
+	@Size(max = 5, message = "태그는 최대 5개까지 지정할 수 있습니다.")
+	private List<String> tags;
 }
@@ -0,0 +1,60 @@
+package com.mysite.sbb.question;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.support.PeriodicTrigger;
+import org.springframework.stereotype.Component;
+
+import com.mysite.sbb.job.Job;
+import com.mysite.sbb.job.JobContext;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class QuestionPurger implements Job {
+
+	private final QuestionService questionService;
+	private final QuestionRepository questionRepository;
+
+	@Value("${sbb.question.purge.chunk-size:500}")
+	private int chunkSize;
+
+	@Value("${sbb.question.purge.batch-size:20}")
+	private int batchSize;
+
+	@Value("${sbb.question.purge.delay-ms:60000}")
+	private long delayMs;
+
+	@Override
+	public String getName() {
+		return "question-purge";
+	}
+
+	@Override
+	public Trigger getTrigger() {
+		return new PeriodicTrigger(Duration.ofMillis(this.delayMs));
+	}
+
+	// 소프트 삭제된 질문을 chunkSize 단위의 짧은 트랜잭션으로 나눠서 실제 삭제
+	@Override
+	public void execute(JobContext context) {
+		List<Integer> ids = this.questionRepository.findDeletedIds(PageRequest.of(0, this.batchSize));
+		for (Integer id : ids) {
+			int purged = 0;
+			int count;
+			do {
+				count = this.questionService.purgeAnswers(id, this.chunkSize);
+				purged += count;
+			} while (count == this.chunkSize);
+			this.questionService.bulkDelete(id);
+			log.info("Purged question ID: {} ({} answers)", id, purged);
+		}
+	}
+}
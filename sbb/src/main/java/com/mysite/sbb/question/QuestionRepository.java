@@ -1,36 +1,152 @@
 package com.mysite.sbb.question;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import com.mysite.sbb.user.SiteUser;
+
+import jakarta.persistence.QueryHint;
+
 public interface QuestionRepository extends JpaRepository<Question, Integer> {
 	Question findBySubject(String subject);
 
-	Question findBySubjectAndContent(String subject, String content);
+	// 압축된 본문은 앞부분이 일치하는 후보만 읽어서 전체를 비교
+	default Question findBySubjectAndContent(String subject, String content) {
+		return findBySubjectAndContentCandidates(subject, content).stream()
+				.filter(q -> content.equals(q.getContent())).findFirst().orElse(null);
+	}
+
+	@Query("select q from Question q left join q.body b where q.subject = :subject "
+			+ "and (b.plain = :content or q.legacyContent = :content "
+			+ "or (b.searchPrefix is not null and locate(b.searchPrefix, :content) = 1))")
+	List<Question> findBySubjectAndContentCandidates(@Param("subject") String subject,
+			@Param("content") String content);
 
 	List<Question> findBySubjectLike(String subject);
 
+	@Query("select q from Question q left join fetch q.author left join fetch q.body "
+			+ "where q.id in :ids and q.deleteDate is null")
+	List<Question> findBatch(@Param("ids") List<Integer> ids);
+
+	// 목록용, 본문은 읽지 않는다
+	@Query("select q from Question q left join fetch q.author where q.id in :ids and q.deleteDate is null")
+	List<Question> findPage(@Param("ids") List<Integer> ids);
+
 	Page<Question> findAll(Pageable pageable);
 
 	Page<Question> findAll(Specification<Question> spec, Pageable pageable);
-	
+
+	// 제목, 본문, 작성자 이름, 답변 본문과 답변 작성자 이름에서 찾는다.
+	// 압축된 본문 (ContentBody.SEARCH_PREFIX_CHARS 글자보다 긴 본문)은 앞 SEARCH_PREFIX_CHARS 글자만 검색한다
 	@Query("select "
             + "distinct q "
             + "from Question q " 
             + "left outer join SiteUser u1 on q.author=u1 "
+            + "left outer join ContentBody b1 on q.body=b1 "
             + "left outer join Answer a on a.question=q "
             + "left outer join SiteUser u2 on a.author=u2 "
+            + "left outer join ContentBody b2 on a.body=b2 "
             + "where "
-            + "   q.subject like %:kw% "
-            + "   or q.content like %:kw% "
+            + "   q.deleteDate is null "
+            + "   and (q.subject like %:kw% "
+            + "   or b1.plain like %:kw% "
+            + "   or b1.searchPrefix like %:kw% "
+            + "   or q.legacyContent like %:kw% "
             + "   or u1.username like %:kw% "
-            + "   or a.content like %:kw% "
-            + "   or u2.username like %:kw% ")
+            + "   or b2.plain like %:kw% "
+            + "   or b2.searchPrefix like %:kw% "
+            + "   or a.legacyContent like %:kw% "
+            + "   or u2.username like %:kw%) ")
     Page<Question> findAllByKeyword(@Param("kw") String kw, Pageable pageable);
+
+	// MySQL 드라이버는 fetch size 가 Integer.MIN_VALUE 일 때만 행을 스트리밍한다
+	@QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "-2147483648"))
+	@Query("select q.id as id, q.subject as subject, q.createDate as createDate, q.voteCount as voteCount "
+			+ "from Question q where q.deleteDate is null and q.createDate >= :since")
+	Stream<HotQuestionSource> streamHotSources(@Param("since") LocalDateTime since);
+
+	@QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "-2147483648"))
+	@Query("select q.id from Question q where q.deleteDate is null")
+	Stream<Integer> streamLiveIds();
+
+	// 작성, 수정, 삭제 시각이 since 이후인 질문, 세 컬럼의 인덱스를 index merge 로 읽는다
+	@Query("select q.id from Question q "
+			+ "where q.createDate >= :since or q.modifyDate >= :since or q.deleteDate >= :since")
+	List<Integer> findChangedIds(@Param("since") LocalDateTime since);
+
+	@Query("select q.id from Question q where q.id in :ids and q.deleteDate is null")
+	List<Integer> findLiveIdsIn(@Param("ids") List<Integer> ids);
+
+	@QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "-2147483648"))
+	@Query("select q.id as id, q.subject as subject, b.plain as plain, b.compressed as compressed, b.length as length, "
+			+ "q.legacyContent as legacyContent from Question q left join q.body b where q.deleteDate is null")
+	Stream<SimilarQuestionSource> streamSimilarSources();
+
+	@Query("select q.id as id, q.subject as subject, q.createDate as createDate, q.voteCount as voteCount "
+			+ "from Question q where q.author = :author and q.deleteDate is null "
+			+ "and (q.createDate < :createDate or (q.createDate = :createDate and q.id < :id)) "
+			+ "order by q.createDate desc, q.id desc")
+	List<QuestionSummary> findSummariesByAuthor(@Param("author") SiteUser author,
+			@Param("createDate") LocalDateTime createDate, @Param("id") int id, Pageable pageable);
+
+	@Query("select q.id as id, q.subject as subject, q.createDate as createDate, q.voteCount as voteCount "
+			+ "from Question q join q.voter v where v = :voter and q.deleteDate is null and q.id < :id "
+			+ "order by q.id desc")
+	List<QuestionSummary> findSummariesByVoter(@Param("voter") SiteUser voter, @Param("id") int id,
+			Pageable pageable);
+
+	long countByAuthorAndDeleteDateIsNull(SiteUser author);
+
+	@Query("select count(q) from Question q join q.voter v where v = :voter and q.deleteDate is null")
+	long countByVoter(@Param("voter") SiteUser voter);
+
+	@Query("select q.id from Question q where q.id > :afterId order by q.id")
+	List<Integer> findIdsAfter(@Param("afterId") int afterId, Pageable pageable);
+
+	@Query("select q.id from Question q where q.legacyContent is not null and q.id > :afterId order by q.id")
+	List<Integer> findLegacyContentIdsAfter(@Param("afterId") int afterId, Pageable pageable);
+
+	// 질문, 답변 모두 cutoff 이후에 작성/수정되지 않은 스레드
+	@Query("select q.id from Question q where q.id > :afterId and q.archiveDate is null and q.deleteDate is null "
+			+ "and q.createDate < :cutoff and (q.modifyDate is null or q.modifyDate < :cutoff) "
+			+ "and not exists (select a.id from Answer a where a.question = q "
+			+ "and (a.createDate >= :cutoff or a.modifyDate >= :cutoff)) order by q.id")
+	List<Integer> findArchivableIdsAfter(@Param("afterId") int afterId, @Param("cutoff") LocalDateTime cutoff,
+			Pageable pageable);
+
+	@Modifying
+	@Query("update Question q set q.body = null, q.legacyContent = null, q.archiveDate = :archiveDate "
+			+ "where q.id = :questionId")
+	int markArchived(@Param("questionId") Integer questionId, @Param("archiveDate") LocalDateTime archiveDate);
+
+	@Query("select q.id from Question q where q.deleteDate is not null order by q.id")
+	List<Integer> findDeletedIds(Pageable pageable);
+
+	@Modifying
+	@Query("delete from ContentBody b where b.id = (select q.body.id from Question q where q.id = :questionId)")
+	int deleteBodyById(@Param("questionId") Integer questionId);
+
+	@Modifying
+	@Query(value = "delete from question_tag where question_id = :questionId", nativeQuery = true)
+	int deleteTagsById(@Param("questionId") Integer questionId);
+
+	@Modifying
+	@Query(value = "delete from question_voter where question_id = :questionId", nativeQuery = true)
+	int deleteVotersById(@Param("questionId") Integer questionId);
+
+	@Modifying
+	@Query(value = "update question q set q.vote_count = "
+			+ "(select count(*) from question_voter v where v.question_id = q.id) "
+			+ "where q.id in (:ids) and q.archive_date is null", nativeQuery = true)
+	int updateVoteCounts(@Param("ids") List<Integer> ids);
 }
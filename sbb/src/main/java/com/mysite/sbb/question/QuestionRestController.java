@@ -4,9 +4,21 @@ import java.security.Principal;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
+import com.mysite.sbb.BatchItem;
+import com.mysite.sbb.FacetedPage;
+import com.mysite.sbb.KeysetPage;
+import com.mysite.sbb.SingleFlight;
+import com.mysite.sbb.archive.ArchiveService;
+import com.mysite.sbb.archive.ArchivedThread;
 import com.mysite.sbb.answer.Answer;
+import com.mysite.sbb.answer.AnswerService;
+import com.mysite.sbb.answer.AnswerSort;
+import com.mysite.sbb.revision.PostType;
+import com.mysite.sbb.revision.RevisionDTO;
+import com.mysite.sbb.revision.RevisionService;
+import com.mysite.sbb.tag.Tag;
+import com.mysite.sbb.tag.TagService;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -28,36 +40,154 @@ import org.springframework.web.server.ResponseStatusException;
 @RestController
 public class QuestionRestController {
 
+    private static final int FIRST_ANSWER_PAGE_SIZE = 20;
+    private static final int MAX_ANSWER_PAGE_SIZE = 100;
+    private static final int MAX_BATCH_SIZE = 200;
+
     private final QuestionService questionService;
+    private final AnswerService answerService;
+    private final ArchiveService archiveService;
+    private final RevisionService revisionService;
+    private final TagService tagService;
     private final UserService userService;
+    // 같은 질문을 동시에 조회하면 한 번만 읽어서 같은 응답을 돌려준다
+    private final SingleFlight<Integer, QuestionDTO> questionLoads = new SingleFlight<>();
 
-    // 전체 질문 목록 조회
+    // 전체 질문 목록 조회, tags 를 지정하면 그 태그를 모두 가진 질문만 (kw 와 함께 사용할 수 없음)
+    // kw 가 없으면 태그별 질문 수(facets)를 같이 반환
     @GetMapping("/")
     public ResponseEntity<Page<QuestionDTO>> getQuestionsWithSlash(@RequestParam(value = "page", defaultValue = "0") int page,
-                                                                   @RequestParam(value = "kw", defaultValue = "") String kw) {
-        log.info("Received request to get questions - page: {}, kw: {}", page, kw);
-        Page<Question> paging = this.questionService.getList(page, kw);
-        Page<QuestionDTO> dtoPaging = paging.map(this::toDTO);
+                                                                   @RequestParam(value = "kw", defaultValue = "") String kw,
+                                                                   @RequestParam(value = "tags", required = false) List<String> tags) {
+        log.info("Received request to get questions - page: {}, kw: {}, tags: {}", page, kw, tags);
+        List<String> tagNames = tags == null ? List.of() : this.tagService.normalize(tags);
+        if (!tagNames.isEmpty() && !kw.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "kw 와 tags 는 함께 사용할 수 없습니다.");
+        }
+        Page<Question> paging;
+        Map<String, Integer> facets = null;
+        if (!tagNames.isEmpty()) {
+            FacetedPage<Question> tagged = this.questionService.getTaggedList(tagNames, page);
+            paging = tagged;
+            facets = tagged.getFacets();
+        } else {
+            paging = this.questionService.getList(page, kw);
+            if (kw.isEmpty()) {
+                facets = this.questionService.getTagFacets();
+            }
+        }
+        // 목록은 본문과 답변 없이 메타데이터만 반환, 답변 수와 태그는 페이지 단위로 한 번씩 조회
+        List<Integer> ids = paging.map(Question::getId).getContent();
+        Map<Integer, Long> answerCounts = this.answerService.getCounts(ids);
+        Map<Integer, List<String>> questionTags = this.tagService.getNames(ids);
+        Page<QuestionDTO> dtoPaging = paging.map(q -> toSummaryDTO(q, answerCounts.getOrDefault(q.getId(), 0L),
+                questionTags.getOrDefault(q.getId(), List.of())));
+        if (facets != null) {
+            dtoPaging = new FacetedPage<>(dtoPaging.getContent(), dtoPaging.getPageable(), dtoPaging.getTotalElements(), facets);
+        }
         log.info("Returning {} questions", dtoPaging.getTotalElements());
         return new ResponseEntity<>(dtoPaging, HttpStatus.OK);
     }
 
+    // 인기 질문 조회
+    @GetMapping("/hot")
+    public ResponseEntity<List<HotQuestionDTO>> getHotQuestions(@RequestParam(value = "size", defaultValue = "10") int size) {
+        log.info("Received request to get hot questions - size: {}", size);
+        List<HotQuestionDTO> hotList = this.questionService.getHotList(Math.max(1, Math.min(size, 100)));
+        return new ResponseEntity<>(hotList, HttpStatus.OK);
+    }
+
+    // 작성 중인 질문과 비슷한 질문 조회
+    @GetMapping("/similar")
+    public ResponseEntity<List<SimilarQuestionDTO>> getSimilarQuestions(@RequestParam("text") String text,
+                                                                        @RequestParam(value = "size", defaultValue = "5") int size) {
+        log.info("Received request to get similar questions - size: {}", size);
+        List<SimilarQuestionDTO> similarList = this.questionService.getSimilarList(text, Math.max(1, Math.min(size, 20)));
+        return new ResponseEntity<>(similarList, HttpStatus.OK);
+    }
+
+    // 여러 질문을 한 번에 조회, 요청한 순서대로 반환하고 없는 ID 는 found=false
+    @GetMapping("/batch")
+    public ResponseEntity<List<BatchItem<QuestionDTO>>> getQuestionBatch(@RequestParam("ids") List<Integer> ids,
+                                                                         @RequestParam(value = "answerCount", defaultValue = "false") boolean withAnswerCount) {
+        log.info("Received request to get {} questions - answerCount: {}", ids.size(), withAnswerCount);
+        if (ids.isEmpty() || ids.size() > MAX_BATCH_SIZE || ids.contains(null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "ids 는 1~" + MAX_BATCH_SIZE + "개의 ID 여야 합니다.");
+        }
+        Map<Integer, Question> questions = this.questionService.getQuestions(ids);
+        Map<Integer, Long> answerCounts = withAnswerCount
+                ? this.answerService.getCounts(List.copyOf(questions.keySet())) : Map.of();
+        Map<Integer, List<String>> questionTags = this.tagService.getNames(questions.keySet());
+        Map<Integer, QuestionDTO> dtos = new HashMap<>();
+        questions.forEach((questionId, question) -> {
+            QuestionDTO dto = toSummaryDTO(question, withAnswerCount ? answerCounts.getOrDefault(questionId, 0L) : null,
+                    questionTags.getOrDefault(questionId, List.of()));
+            // 보관된 질문은 단건 조회와 같이 본문과 답변 수를 archive 세그먼트에서 읽는다 (질문마다 한 번)
+            if (question.getArchiveDate() != null) {
+                ArchivedThread thread = this.archiveService.load(question);
+                dto.setContent(thread.content());
+                if (withAnswerCount) {
+                    dto.setAnswerCount((long) thread.answers().size());
+                }
+            } else {
+                dto.setContent(question.getContent());
+            }
+            dtos.put(questionId, dto);
+        });
+        return new ResponseEntity<>(BatchItem.of(ids, dtos), HttpStatus.OK);
+    }
+
     // 특정 질문 조회
     @GetMapping("/{id}")
     public ResponseEntity<QuestionDTO> getQuestion(@PathVariable("id") Integer id) {
         log.info("Received request to get question with ID: {}", id);
-        Question question = this.questionService.getQuestion(id);
-        QuestionDTO questionDTO = toDTO(question);
+        QuestionDTO questionDTO = this.questionLoads.load(id, () -> toDTO(this.questionService.getQuestion(id)));
         return new ResponseEntity<>(questionDTO, HttpStatus.OK);
     }
 
+    // 질문의 답변 목록 조회 (keyset 페이지네이션)
+    @GetMapping("/{id}/answers")
+    public ResponseEntity<KeysetPage<AnswerDTO>> getAnswers(@PathVariable("id") Integer id,
+                                                            @RequestParam(value = "sort", defaultValue = "oldest") String sort,
+                                                            @RequestParam(value = "cursor", required = false) String cursor,
+                                                            @RequestParam(value = "size", defaultValue = "20") int size) {
+        log.info("Received request to get answers of question ID: {} - sort: {}, cursor: {}", id, sort, cursor);
+        Question question = this.questionService.getQuestion(id);
+        int pageSize = Math.max(1, Math.min(size, MAX_ANSWER_PAGE_SIZE));
+        if (question.getArchiveDate() != null) {
+            KeysetPage<ArchivedThread.Post> page = this.archiveService.getAnswerPage(
+                    this.archiveService.load(question), AnswerSort.from(sort), cursor, pageSize);
+            return new ResponseEntity<>(page.map(this::toDTO), HttpStatus.OK);
+        }
+        KeysetPage<Answer> page = this.answerService.getPage(question, AnswerSort.from(sort), cursor, pageSize);
+        return new ResponseEntity<>(page.map(this::toDTO), HttpStatus.OK);
+    }
+
+    // 질문 수정 이력 목록 (최신순)
+    @GetMapping("/{id}/revisions")
+    public ResponseEntity<Page<RevisionDTO>> getRevisions(@PathVariable("id") Integer id,
+                                                          @RequestParam(value = "page", defaultValue = "0") int page) {
+        log.info("Received request to get revisions of question ID: {} - page: {}", id, page);
+        Question question = this.questionService.getQuestion(id);
+        return new ResponseEntity<>(this.revisionService.getList(PostType.QUESTION, question.getId(), page), HttpStatus.OK);
+    }
+
+    // 질문의 특정 revision 본문 조회
+    @GetMapping("/{id}/revisions/{number}")
+    public ResponseEntity<RevisionDTO> getRevision(@PathVariable("id") Integer id, @PathVariable("number") int number) {
+        log.info("Received request to get revision {} of question ID: {}", number, id);
+        Question question = this.questionService.getQuestion(id);
+        return new ResponseEntity<>(this.revisionService.getRevision(PostType.QUESTION, question.getId(), number), HttpStatus.OK);
+    }
+
     // 질문 생성
     @PreAuthorize("isAuthenticated()")
     @PostMapping("")
     public ResponseEntity<QuestionDTO> createQuestion(@Valid @RequestBody QuestionForm questionForm, Principal principal) {
         log.info("Received request to create question - Subject: {}, Content: {}", questionForm.getSubject(), questionForm.getContent());
         SiteUser siteUser = this.userService.getUser(principal.getName());
-        Question question = this.questionService.create(questionForm.getSubject(), questionForm.getContent(), siteUser);
+        Question question = this.questionService.create(questionForm.getSubject(), questionForm.getContent(),
+                questionForm.getTags(), siteUser);
         QuestionDTO questionDTO = toDTO(question);
         log.info("Question created successfully with ID: {}", question.getId());
         return new ResponseEntity<>(questionDTO, HttpStatus.CREATED);
@@ -75,7 +205,7 @@ public class QuestionRestController {
             log.warn("Unauthorized attempt to update question ID: {}", id);
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "수정 권한이 없습니다.");
         }
-        this.questionService.modify(question, questionForm.getSubject(), questionForm.getContent());
+        this.questionService.modify(question, questionForm.getSubject(), questionForm.getContent(), questionForm.getTags());
         QuestionDTO questionDTO = toDTO(question);
         log.info("Question updated successfully with ID: {}", id);
         return new ResponseEntity<>(questionDTO, HttpStatus.OK);
@@ -116,11 +246,23 @@ public class QuestionRestController {
 
 }
 
+    private QuestionDTO toSummaryDTO(Question question, Long answerCount, List<String> tags) {
+        QuestionDTO dto = new QuestionDTO();
+        dto.setId(question.getId());
+        dto.setSubject(question.getSubject());
+        dto.setCreateDate(question.getCreateDate());
+        dto.setModifyDate(question.getModifyDate());
+        dto.setAuthorUsername(question.getAuthor() != null ? question.getAuthor().getUsername() : "Anonymous");
+        dto.setAnswerCount(answerCount);
+        dto.setTags(tags);
+        dto.setArchived(question.getArchiveDate() != null);
+        return dto;
+    }
+
     private QuestionDTO toDTO(Question question) {
         QuestionDTO dto = new QuestionDTO();
         dto.setId(question.getId());
         dto.setSubject(question.getSubject());
-        dto.setContent(question.getContent());
         dto.setCreateDate(question.getCreateDate());
         dto.setModifyDate(question.getModifyDate());
 
@@ -130,8 +272,27 @@ public class QuestionRestController {
         } else {
             dto.setAuthorUsername("Anonymous"); // or any default value you prefer
         }
+        dto.setTags(question.getTags().stream().map(Tag::getName).sorted().toList());
+
+        // 보관된 스레드는 본문과 답변을 archive 세그먼트에서 읽음
+        if (question.getArchiveDate() != null) {
+            ArchivedThread thread = this.archiveService.load(question);
+            KeysetPage<ArchivedThread.Post> answers = this.archiveService.getAnswerPage(thread, AnswerSort.OLDEST,
+                    null, FIRST_ANSWER_PAGE_SIZE);
+            dto.setContent(thread.content());
+            dto.setAnswerList(answers.getContent().stream().map(this::toDTO).toList());
+            dto.setNextAnswerCursor(answers.getNext());
+            dto.setAnswerCount((long) thread.answers().size());
+            dto.setArchived(true);
+            return dto;
+        }
+        dto.setContent(question.getContent());
 
-        dto.setAnswerList(question.getAnswerList().stream().map(this::toDTO).collect(Collectors.toList()));
+        // 답변은 첫 페이지와 전체 개수만 포함
+        KeysetPage<Answer> answers = this.answerService.getPage(question, AnswerSort.OLDEST, null, FIRST_ANSWER_PAGE_SIZE);
+        dto.setAnswerList(answers.getContent().stream().map(this::toDTO).toList());
+        dto.setNextAnswerCursor(answers.getNext());
+        dto.setAnswerCount(answers.getNext() == null ? answers.getContent().size() : this.answerService.getCount(question));
         return dto;
     }
 
@@ -141,6 +302,7 @@ public class QuestionRestController {
         dto.setContent(answer.getContent());
         dto.setCreateDate(answer.getCreateDate());
         dto.setModifyDate(answer.getModifyDate());
+        dto.setVoteCount(answer.getVoteCount());
 
         // Null check for author
         if (answer.getAuthor() != null) {
@@ -151,4 +313,15 @@ public class QuestionRestController {
 
         return dto;
     }
+
+    private AnswerDTO toDTO(ArchivedThread.Post answer) {
+        AnswerDTO dto = new AnswerDTO();
+        dto.setId(answer.id());
+        dto.setContent(answer.content());
+        dto.setCreateDate(answer.createDate());
+        dto.setModifyDate(answer.modifyDate());
+        dto.setVoteCount(answer.voteCount());
+        dto.setAuthorUsername(answer.authorUsername() != null ? answer.authorUsername() : "Anonymous");
+        return dto;
+    }
 }
@@ -2,20 +2,42 @@ package com.mysite.sbb.question;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.mysite.sbb.DataNotFoundException;
+import com.mysite.sbb.FacetedPage;
+import com.mysite.sbb.archive.ArchiveService;
 import com.mysite.sbb.answer.Answer;
+import com.mysite.sbb.answer.AnswerRepository;
+import com.mysite.sbb.content.ContentBody;
+import com.mysite.sbb.content.ContentStore;
+import com.mysite.sbb.revision.PostType;
+import com.mysite.sbb.revision.RevisionRepository;
+import com.mysite.sbb.revision.RevisionService;
+import com.mysite.sbb.tag.Tag;
+import com.mysite.sbb.tag.TagIndex;
+import com.mysite.sbb.tag.TagService;
 import com.mysite.sbb.user.SiteUser;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Join;
@@ -31,7 +53,26 @@ import lombok.extern.slf4j.Slf4j;
 public class QuestionService {
 
 	private final QuestionRepository questionRepository;
+	private final AnswerRepository answerRepository;
+	private final HotQuestionIndex hotQuestionIndex;
+	private final SimilarQuestionIndex similarQuestionIndex;
+	private final ContentStore contentStore;
+	private final ArchiveService archiveService;
+	private final RevisionService revisionService;
+	private final RevisionRepository revisionRepository;
+	private final TagService tagService;
+	private final TagIndex tagIndex;
+	private final EntityManager entityManager;
 
+	// true 이면 삭제 시 deleteDate 만 기록하고 실제 삭제는 QuestionPurger 가 나눠서 처리
+	@Value("${sbb.question.soft-delete:false}")
+	private boolean softDelete;
+
+	// 여러 ID 를 조회할 때 IN 목록 하나에 넣을 최대 ID 수
+	@Value("${sbb.batch.chunk-size:100}")
+	private int batchChunkSize;
+
+	// findAllByKeyword 와 같은 검색 대상, 압축된 본문은 앞 ContentBody.SEARCH_PREFIX_CHARS 글자만 검색한다
 	@SuppressWarnings("unused")
 	private Specification<Question> search(String kw) {
 		return new Specification<>() {
@@ -41,12 +82,18 @@ public class QuestionService {
 			public Predicate toPredicate(Root<Question> q, CriteriaQuery<?> query, CriteriaBuilder cb) {
 				query.distinct(true); // 중복을 제거
 				Join<Question, SiteUser> u1 = q.join("author", JoinType.LEFT);
+				Join<Question, ContentBody> b1 = q.join("body", JoinType.LEFT);
 				Join<Question, Answer> a = q.join("answerList", JoinType.LEFT);
 				Join<Answer, SiteUser> u2 = a.join("author", JoinType.LEFT);
+				Join<Answer, ContentBody> b2 = a.join("body", JoinType.LEFT);
 				return cb.or(cb.like(q.get("subject"), "%" + kw + "%"), // 제목
-						cb.like(q.get("content"), "%" + kw + "%"), // 내용
+						cb.like(b1.get("plain"), "%" + kw + "%"), // 내용
+						cb.like(b1.get("searchPrefix"), "%" + kw + "%"), // 압축된 내용의 앞부분
+						cb.like(q.get("legacyContent"), "%" + kw + "%"), // 옮기기 전 내용
 						cb.like(u1.get("username"), "%" + kw + "%"), // 질문 작성자
-						cb.like(a.get("content"), "%" + kw + "%"), // 답변 내용
+						cb.like(b2.get("plain"), "%" + kw + "%"), // 답변 내용
+						cb.like(b2.get("searchPrefix"), "%" + kw + "%"), // 압축된 답변 내용의 앞부분
+						cb.like(a.get("legacyContent"), "%" + kw + "%"), // 옮기기 전 답변 내용
 						cb.like(u2.get("username"), "%" + kw + "%")); // 답변 작성자
 			}
 		};
@@ -60,10 +107,56 @@ public class QuestionService {
 		return this.questionRepository.findAllByKeyword(kw, pageable);
 	}
 
+	// 태그를 모두 가진 질문을 최신순으로, 페이지 ID 는 TagIndex 에서 구하고 그 질문만 DB 에서 읽는다
+	public FacetedPage<Question> getTaggedList(List<String> tags, int page) {
+		log.info("Fetching tagged questions list - page: {}, tags: {}", page, tags);
+		TagIndex.Result result = this.tagIndex.query(tags, page, 10);
+		Map<Integer, Question> questions = result.ids().isEmpty() ? Map.of()
+				: this.questionRepository.findPage(result.ids()).stream()
+						.collect(Collectors.toMap(Question::getId, Function.identity()));
+		List<Question> content = result.ids().stream().map(questions::get).filter(Objects::nonNull).toList();
+		// 다른 노드에서 삭제되어 아직 인덱스에 남은 질문
+		result.ids().stream().filter(id -> !questions.containsKey(id)).forEach(this.tagIndex::forget);
+		Pageable pageable = PageRequest.of(page, 10, Sort.by(Sort.Order.desc("createDate")));
+		return new FacetedPage<>(content, pageable, result.total(), result.facets());
+	}
+
+	// 전체 질문 기준 태그별 개수
+	public Map<String, Integer> getTagFacets() {
+		return this.tagIndex.query(List.of(), 0, 0).facets();
+	}
+
+	public List<HotQuestionDTO> getHotList(int size) {
+		return this.hotQuestionIndex.top(size);
+	}
+
+	public List<SimilarQuestionDTO> getSimilarList(String text, int size) {
+		List<SimilarQuestionIndex.Match> matches = this.similarQuestionIndex.find(text, size);
+		if (matches.isEmpty()) {
+			return List.of();
+		}
+		Map<Integer, Question> questions = this.questionRepository
+				.findAllById(matches.stream().map(SimilarQuestionIndex.Match::id).toList()).stream()
+				.filter(q -> q.getDeleteDate() == null)
+				.collect(Collectors.toMap(Question::getId, Function.identity()));
+		List<SimilarQuestionDTO> result = new ArrayList<>();
+		for (SimilarQuestionIndex.Match match : matches) {
+			Question question = questions.get(match.id());
+			if (question != null) {
+				SimilarQuestionDTO dto = new SimilarQuestionDTO();
+				dto.setId(question.getId());
+				dto.setSubject(question.getSubject());
+				dto.setSimilarity(match.similarity());
+				result.add(dto);
+			}
+		}
+		return result;
+	}
+
 	public Question getQuestion(Integer id) {
 		log.info("Fetching question with ID: {}", id);
 		Optional<Question> question = this.questionRepository.findById(id);
-		if (question.isPresent()) {
+		if (question.isPresent() && question.get().getDeleteDate() == null) {
 			return question.get();
 		} else {
 			log.error("Question with ID: {} not found", id);
@@ -71,15 +164,31 @@ public class QuestionService {
 		}
 	}
 
-	public Question create(String subject, String content, SiteUser user) {
+	// 찾은 질문만 ID 로 반환, 작성자와 본문은 같은 쿼리로 읽고 보관된 질문은 본문 없이 반환
+	public Map<Integer, Question> getQuestions(List<Integer> ids) {
+		List<Integer> distinct = List.copyOf(new LinkedHashSet<>(ids));
+		Map<Integer, Question> found = new HashMap<>();
+		for (int from = 0; from < distinct.size(); from += this.batchChunkSize) {
+			List<Integer> chunk = distinct.subList(from, Math.min(distinct.size(), from + this.batchChunkSize));
+			this.questionRepository.findBatch(chunk).forEach(q -> found.put(q.getId(), q));
+		}
+		return found;
+	}
+
+	public Question create(String subject, String content, List<String> tags, SiteUser user) {
 		log.info("Creating question - Subject: {}, Content: {}, User: {}", subject, content, user.getUsername());
+		List<String> tagNames = tags == null ? List.of() : this.tagService.normalize(tags);
 		Question q = new Question();
 		q.setSubject(subject);
-		q.setContent(content);
+		q.setBody(this.contentStore.write(null, content));
+		q.setTags(this.tagService.resolve(tagNames));
 		q.setCreateDate(LocalDateTime.now());
 		q.setAuthor(user);
 		try {
 			Question savedQuestion = this.questionRepository.save(q);
+			this.hotQuestionIndex.recordCreate(savedQuestion);
+			this.similarQuestionIndex.put(savedQuestion.getId(), subject, content);
+			this.tagIndex.put(savedQuestion.getId(), List.of(), tagNames);
 			log.info("Question saved successfully with ID: {}", savedQuestion.getId());
 			return savedQuestion;
 		} catch (Exception e) {
@@ -88,25 +197,111 @@ public class QuestionService {
 		}
 	}
 
-	public void modify(Question question, String subject, String content) {
+	// tags 가 null 이면 기존 태그를 유지.
+	// 동시에 수정하면 revision 번호가 겹치고 이전 본문이 달라지므로 질문 행을 잠그고 다시 읽은 뒤 수정한다
+	@Transactional
+	public void modify(Question question, String subject, String content, List<String> tags) {
 		log.info("Modifying question ID: {} - New Subject: {}, New Content: {}", question.getId(), subject, content);
+		this.entityManager.refresh(question, LockModeType.PESSIMISTIC_WRITE);
+		List<String> previousTags = tagNames(question.getTags());
+		List<String> tagNames = tags == null ? previousTags : this.tagService.normalize(tags);
+		if (question.getArchiveDate() != null) {
+			this.archiveService.restore(question);
+		}
+		this.revisionService.recordEdit(PostType.QUESTION, question.getId(),
+				question.getModifyDate() != null ? question.getModifyDate() : question.getCreateDate(),
+				question.getSubject(), question.getContent(), subject, content);
 		question.setSubject(subject);
-		question.setContent(content);
+		question.setBody(this.contentStore.write(question.getBody(), content));
+		question.setLegacyContent(null);
 		question.setModifyDate(LocalDateTime.now());
+		if (tags != null) {
+			question.setTags(this.tagService.resolve(tagNames));
+		}
 		this.questionRepository.save(question);
+		this.hotQuestionIndex.rename(question.getId(), subject);
+		this.similarQuestionIndex.put(question.getId(), subject, content);
+		this.tagIndex.put(question.getId(), previousTags, tagNames);
 		log.info("Question modified successfully with ID: {}", question.getId());
 	}
 
+	@Transactional
 	public void delete(Question question) {
 		log.info("Deleting question with ID: {}", question.getId());
-		this.questionRepository.delete(question);
+		this.hotQuestionIndex.remove(question.getId());
+		this.similarQuestionIndex.remove(question.getId());
+		this.tagIndex.remove(question.getId(), tagNames(question.getTags()));
+		if (this.softDelete) {
+			question.setDeleteDate(LocalDateTime.now());
+			this.questionRepository.save(question);
+			log.info("Question marked as deleted with ID: {}", question.getId());
+			return;
+		}
+		this.bulkDelete(question.getId());
 		log.info("Question deleted successfully with ID: {}", question.getId());
 	}
 
+	// 답변 엔티티를 읽지 않고 집합 단위 delete 문으로 질문 스레드 전체를 삭제
+	@Transactional
+	public void bulkDelete(Integer id) {
+		this.revisionRepository.deleteAnswerRevisionsByQuestionId(id);
+		this.revisionRepository.deleteByPost(PostType.QUESTION, id);
+		this.answerRepository.deleteBodiesByQuestionId(id);
+		int voters = this.answerRepository.deleteVotersByQuestionId(id);
+		int answers = this.answerRepository.deleteByQuestionId(id);
+		this.questionRepository.deleteVotersById(id);
+		this.questionRepository.deleteTagsById(id);
+		this.questionRepository.deleteBodyById(id);
+		this.questionRepository.deleteAllByIdInBatch(List.of(id));
+		log.debug("Bulk deleted question ID: {} ({} answers, {} answer votes)", id, answers, voters);
+	}
+
+	// 소프트 삭제된 질문의 답변을 최대 chunkSize 개 삭제하고 삭제한 개수를 반환
+	@Transactional
+	public int purgeAnswers(Integer id, int chunkSize) {
+		List<Integer> answerIds = this.answerRepository.findIdsByQuestionId(id, PageRequest.of(0, chunkSize));
+		if (answerIds.isEmpty()) {
+			return 0;
+		}
+		this.revisionRepository.deleteByPostIn(PostType.ANSWER, answerIds);
+		this.answerRepository.deleteBodiesByIdIn(answerIds);
+		this.answerRepository.deleteVotersByIdIn(answerIds);
+		this.answerRepository.deleteAllByIdInBatch(answerIds);
+		return answerIds.size();
+	}
+
+	@Transactional
+	public void reconcileVoteCount(List<Integer> ids) {
+		int updated = this.questionRepository.updateVoteCounts(ids);
+		log.debug("Reconciled vote count of {} questions", updated);
+	}
+
+	// 이전 content 컬럼의 본문을 content_body 로 옮김
+	@Transactional
+	public void migrateContent(List<Integer> ids) {
+		for (Question question : this.questionRepository.findAllById(ids)) {
+			if (question.getLegacyContent() != null) {
+				question.setBody(this.contentStore.write(question.getBody(), question.getLegacyContent()));
+				question.setLegacyContent(null);
+			}
+		}
+	}
+
 	public void vote(Question question, SiteUser siteUser) {
 		log.info("User {} voting on question ID: {}", siteUser.getUsername(), question.getId());
-		question.getVoter().add(siteUser);
+		if (question.getArchiveDate() != null) {
+			this.archiveService.restore(question);
+		}
+		boolean added = question.getVoter().add(siteUser);
+		question.setVoteCount(question.getVoter().size());
 		this.questionRepository.save(question);
+		if (added) {
+			this.hotQuestionIndex.recordVote(question);
+		}
 		log.info("Vote recorded successfully for question ID: {}", question.getId());
 	}
+
+	private static List<String> tagNames(Set<Tag> tags) {
+		return tags == null ? List.of() : tags.stream().map(Tag::getName).sorted().toList();
+	}
 }
@@ -0,0 +1,13 @@
+package com.mysite.sbb.question;
+
+import java.time.LocalDateTime;
+
+public interface QuestionSummary {
+	Integer getId();
+
+	String getSubject();
+
+	LocalDateTime getCreateDate();
+
+	int getVoteCount();
+}
@@ -0,0 +1,45 @@
+package com.mysite.sbb.question;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.stereotype.Component;
+
+import com.mysite.sbb.job.ChunkedJob;
+
+import lombok.RequiredArgsConstructor;
+
+// question.vote_count 를 question_voter 기준으로 다시 맞추는 작업
+@RequiredArgsConstructor
+@Component
+public class QuestionVoteCountJob extends ChunkedJob {
+
+	private final QuestionService questionService;
+	private final QuestionRepository questionRepository;
+
+	@Value("${sbb.job.question-vote-count.cron:0 */10 * * * *}")
+	private String cron;
+
+	@Override
+	public String getName() {
+		return "question-vote-count";
+	}
+
+	@Override
+	public Trigger getTrigger() {
+		return new CronTrigger(this.cron);
+	}
+
+	@Override
+	protected List<Integer> nextChunk(int afterId, int size) {
+		return this.questionRepository.findIdsAfter(afterId, PageRequest.of(0, size));
+	}
+
+	@Override
+	protected void process(List<Integer> ids) {
+		this.questionService.reconcileVoteCount(ids);
+	}
+}
@@ -0,0 +1,13 @@
+package com.mysite.sbb.question;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class SimilarQuestionDTO {
+    private Integer id;
+    private String subject;
+    // 추정 Jaccard 유사도 (0 ~ 1)
+    private double similarity;
+}
@@ -0,0 +1,323 @@
+package com.mysite.sbb.question;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.mysite.sbb.IntIntHashMap;
+import com.mysite.sbb.Transactions;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// 제목+내용의 문자 3-gram 으로 MinHash signature 를 만들고 LSH banding 으로 비슷한 질문 후보를 찾는 인덱스.
+// signature 는 질문 하나당 short 64 개를 하나의 배열에 이어 붙여 저장하고,
+// band 별 bucket 은 slot 번호로 연결한 리스트(next 배열)로 관리해서 질문마다 객체를 만들지 않는다.
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class SimilarQuestionIndex {
+
+	private static final int HASHES = 64;
+	private static final int BANDS = 16;
+	private static final int ROWS = HASHES / BANDS;
+	private static final int SHINGLE = 3;
+	// 흔한 band 값 때문에 조회가 느려지지 않도록 bucket 하나에서 확인할 최대 후보 수
+	private static final int MAX_BUCKET_SCAN = 500;
+
+	private final QuestionRepository questionRepository;
+
+	@Value("${sbb.similar.max-chars:1000}")
+	private int maxChars;
+
+	@Value("${sbb.similar.min-similarity:0.3}")
+	private double minSimilarity;
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private Store store = new Store(1024);
+	// rebuild 중에 들어온 변경, rebuild 가 끝나면 새 store 에 다시 적용한다 (write lock 으로 보호)
+	private List<Change> pending;
+
+	public void put(Integer id, String subject, String content) {
+		apply(new Change(id, signature(subject, content)));
+	}
+
+	public void remove(Integer id) {
+		apply(new Change(id, null));
+	}
+
+	// 추정 Jaccard 유사도가 높은 순으로 최대 limit 개
+	public List<Match> find(String text, int limit) {
+		short[] query = signature(text, null);
+		List<Match> matches = new ArrayList<>();
+		this.lock.readLock().lock();
+		try {
+			this.store.collect(query, this.minSimilarity, matches);
+		} finally {
+			this.lock.readLock().unlock();
+		}
+		matches.sort(Comparator.comparingDouble(Match::similarity).reversed());
+		return matches.size() > limit ? matches.subList(0, limit) : matches;
+	}
+
+	@Transactional(readOnly = true)
+	@EventListener(ApplicationReadyEvent.class)
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	public synchronized void rebuild() {
+		long start = System.currentTimeMillis();
+		Store rebuilt = new Store((int) Math.min(Integer.MAX_VALUE / HASHES, this.questionRepository.count() + 1024));
+		this.lock.writeLock().lock();
+		try {
+			this.pending = new ArrayList<>();
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+		try {
+			try (Stream<SimilarQuestionSource> questions = this.questionRepository.streamSimilarSources()) {
+				questions.forEach(q -> rebuilt.put(q.getId(), signature(q.getSubject(), q.getContent())));
+			}
+			// 스트리밍하는 동안 추가, 수정, 삭제된 질문은 순서대로 다시 적용한 뒤 교체
+			this.lock.writeLock().lock();
+			try {
+				this.pending.forEach(change -> change.applyTo(rebuilt));
+				this.store = rebuilt;
+			} finally {
+				this.lock.writeLock().unlock();
+			}
+		} finally {
+			this.lock.writeLock().lock();
+			try {
+				this.pending = null;
+			} finally {
+				this.lock.writeLock().unlock();
+			}
+		}
+		log.info("Rebuilt similar question index with {} entries in {} ms", rebuilt.slots.size(),
+				System.currentTimeMillis() - start);
+	}
+
+	// 트랜잭션 안에서 호출하면 커밋된 뒤에 반영하고 롤백되면 버린다
+	private void apply(Change change) {
+		Transactions.afterCommit(() -> {
+			this.lock.writeLock().lock();
+			try {
+				change.applyTo(this.store);
+				if (this.pending != null) {
+					this.pending.add(change);
+				}
+			} finally {
+				this.lock.writeLock().unlock();
+			}
+		});
+	}
+
+	private short[] signature(String subject, String content) {
+		char[] text = normalize(subject, content);
+		int[] mins = new int[HASHES];
+		Arrays.fill(mins, Integer.MAX_VALUE);
+		int shingles = Math.max(1, text.length - SHINGLE + 1);
+		for (int s = 0; s < shingles; s++) {
+			long h = 0;
+			for (int j = s; j < Math.min(s + SHINGLE, text.length); j++) {
+				h = h * 31 + text[j];
+			}
+			h = mix64(h);
+			// 64 개의 hash 를 h1 + i * h2 로 만든다
+			int h1 = (int) h;
+			int h2 = (int) (h >>> 32) | 1;
+			for (int i = 0; i < HASHES; i++) {
+				int v = h1 + i * h2;
+				v ^= v >>> 15;
+				if (v < mins[i]) {
+					mins[i] = v;
+				}
+			}
+		}
+		short[] signature = new short[HASHES];
+		for (int i = 0; i < HASHES; i++) {
+			signature[i] = (short) mins[i];
+		}
+		return signature;
+	}
+
+	// 소문자로 바꾸고 연속된 공백은 하나로 줄여서 최대 maxChars 글자까지
+	private char[] normalize(String subject, String content) {
+		String source = content == null ? subject : subject + " " + content;
+		char[] text = new char[Math.min(source.length(), this.maxChars)];
+		int length = 0;
+		boolean space = true;
+		for (int i = 0; i < source.length() && length < text.length; i++) {
+			char c = source.charAt(i);
+			if (Character.isWhitespace(c)) {
+				if (!space) {
+					text[length++] = ' ';
+				}
+				space = true;
+			} else {
+				text[length++] = Character.toLowerCase(c);
+				space = false;
+			}
+		}
+		return Arrays.copyOf(text, length);
+	}
+
+	private static long mix64(long h) {
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+	private static int bandKey(short[] signatures, int offset, int band) {
+		int h = 1;
+		for (int r = 0; r < ROWS; r++) {
+			h = h * 31 + signatures[offset + band * ROWS + r];
+		}
+		return h;
+	}
+
+	public record Match(int id, double similarity) {
+	}
+
+	// signature 가 null 이면 삭제
+	private record Change(int id, short[] signature) {
+		void applyTo(Store store) {
+			if (this.signature == null) {
+				store.remove(this.id);
+			} else {
+				store.put(this.id, this.signature);
+			}
+		}
+	}
+
+	private static final class Store {
+		private short[] signatures;
+		private int[] ids;
+		// next[slot * BANDS + band] = 같은 bucket 의 다음 slot, 없으면 -1
+		private int[] next;
+		private int[] free;
+		private int freeCount;
+		private int top;
+		private final IntIntHashMap slots;
+		private final IntIntHashMap[] heads = new IntIntHashMap[BANDS];
+
+		Store(int capacity) {
+			this.signatures = new short[capacity * HASHES];
+			this.ids = new int[capacity];
+			this.next = new int[capacity * BANDS];
+			this.free = new int[16];
+			this.slots = new IntIntHashMap(capacity);
+			for (int b = 0; b < BANDS; b++) {
+				this.heads[b] = new IntIntHashMap(capacity);
+			}
+		}
+
+		void put(int id, short[] signature) {
+			int slot = this.slots.get(id, -1);
+			if (slot >= 0) {
+				unlink(slot);
+			} else {
+				slot = allocate();
+				this.slots.put(id, slot);
+				this.ids[slot] = id;
+			}
+			System.arraycopy(signature, 0, this.signatures, slot * HASHES, HASHES);
+			link(slot);
+		}
+
+		void remove(int id) {
+			int slot = this.slots.remove(id, -1);
+			if (slot < 0) {
+				return;
+			}
+			unlink(slot);
+			if (this.freeCount == this.free.length) {
+				this.free = Arrays.copyOf(this.free, this.free.length * 2);
+			}
+			this.free[this.freeCount++] = slot;
+		}
+
+		void collect(short[] query, double minSimilarity, List<Match> matches) {
+			IntIntHashMap seen = new IntIntHashMap();
+			for (int b = 0; b < BANDS; b++) {
+				int scanned = 0;
+				for (int slot = this.heads[b].get(bandKey(query, 0, b), -1); slot >= 0
+						&& scanned < MAX_BUCKET_SCAN; slot = this.next[slot * BANDS + b], scanned++) {
+					if (seen.containsKey(slot)) {
+						continue;
+					}
+					seen.put(slot, 1);
+					int same = 0;
+					int offset = slot * HASHES;
+					for (int i = 0; i < HASHES; i++) {
+						if (this.signatures[offset + i] == query[i]) {
+							same++;
+						}
+					}
+					double similarity = (double) same / HASHES;
+					if (similarity >= minSimilarity) {
+						matches.add(new Match(this.ids[slot], similarity));
+					}
+				}
+			}
+		}
+
+		private int allocate() {
+			if (this.freeCount > 0) {
+				return this.free[--this.freeCount];
+			}
+			if (this.top == this.ids.length) {
+				int capacity = this.ids.length + (this.ids.length >> 1) + 1;
+				this.signatures = Arrays.copyOf(this.signatures, capacity * HASHES);
+				this.ids = Arrays.copyOf(this.ids, capacity);
+				this.next = Arrays.copyOf(this.next, capacity * BANDS);
+			}
+			return this.top++;
+		}
+
+		private void link(int slot) {
+			for (int b = 0; b < BANDS; b++) {
+				int key = bandKey(this.signatures, slot * HASHES, b);
+				this.next[slot * BANDS + b] = this.heads[b].get(key, -1);
+				this.heads[b].put(key, slot);
+			}
+		}
+
+		private void unlink(int slot) {
+			for (int b = 0; b < BANDS; b++) {
+				int key = bandKey(this.signatures, slot * HASHES, b);
+				int following = this.next[slot * BANDS + b];
+				int current = this.heads[b].get(key, -1);
+				if (current == slot) {
+					if (following < 0) {
+						this.heads[b].remove(key, -1);
+					} else {
+						this.heads[b].put(key, following);
+					}
+					continue;
+				}
+				while (current >= 0) {
+					int after = this.next[current * BANDS + b];
+					if (after == slot) {
+						this.next[current * BANDS + b] = following;
+						break;
+					}
+					current = after;
+				}
+			}
+		}
+	}
+}
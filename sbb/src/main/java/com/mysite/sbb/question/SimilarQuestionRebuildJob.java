@@ -0,0 +1,46 @@
+package com.mysite.sbb.question;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.support.PeriodicTrigger;
+import org.springframework.stereotype.Component;
+
+import com.mysite.sbb.job.Job;
+import com.mysite.sbb.job.JobContext;
+
+import lombok.RequiredArgsConstructor;
+
+// 다른 노드에서 생성/수정된 질문을 반영하도록 SimilarQuestionIndex 를 주기적으로 다시 만드는 작업
+@RequiredArgsConstructor
+@Component
+public class SimilarQuestionRebuildJob implements Job {
+
+	private final SimilarQuestionIndex similarQuestionIndex;
+
+	@Value("${sbb.similar.rebuild-interval:PT6H}")
+	private Duration interval;
+
+	@Override
+	public String getName() {
+		return "similar-question-rebuild";
+	}
+
+	@Override
+	public Trigger getTrigger() {
+		PeriodicTrigger trigger = new PeriodicTrigger(this.interval);
+		trigger.setInitialDelay(this.interval);
+		return trigger;
+	}
+
+	@Override
+	public void execute(JobContext context) {
+		this.similarQuestionIndex.rebuild();
+	}
+
+	@Override
+	public boolean isExclusive() {
+		return false;
+	}
+}
@@ -0,0 +1,24 @@
+package com.mysite.sbb.question;
+
+import com.mysite.sbb.content.ContentBody;
+
+public interface SimilarQuestionSource {
+	Integer getId();
+
+	String getSubject();
+
+	String getPlain();
+
+	byte[] getCompressed();
+
+	Integer getLength();
+
+	String getLegacyContent();
+
+	default String getContent() {
+		if (getPlain() == null && getCompressed() == null) {
+			return getLegacyContent();
+		}
+		return ContentBody.text(getPlain(), getCompressed(), getLength());
+	}
+}
@@ -0,0 +1,5 @@
+package com.mysite.sbb.revision;
+
+public enum PostType {
+	QUESTION, ANSWER
+}
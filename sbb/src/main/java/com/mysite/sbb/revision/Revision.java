@@ -0,0 +1,52 @@
+package com.mysite.sbb.revision;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.Setter;
+
+// 질문/답변 본문의 수정 이력 하나.
+// snapshot 이면 data 가 본문 전체이고, 아니면 이전 revision 본문의 앞 prefix 글자와 뒤 suffix 글자 사이를 data 로 바꾼 것이다.
+@Getter
+@Setter
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_revision_post_number",
+		columnNames = { "post_type", "post_id", "number" }))
+public class Revision {
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Enumerated(EnumType.STRING)
+	@Column(length = 20)
+	private PostType postType;
+
+	private Integer postId;
+
+	// 1 부터 시작, 1 은 처음 수정하기 전의 본문
+	private int number;
+
+	private boolean snapshot;
+
+	private int prefix;
+
+	private int suffix;
+
+	@Column(columnDefinition = "MEDIUMTEXT")
+	private String data;
+
+	// 답변은 null
+	@Column(length = 200)
+	private String subject;
+
+	private LocalDateTime createDate;
+}
@@ -0,0 +1,16 @@
+package com.mysite.sbb.revision;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+public class RevisionDTO {
+    private int number;
+    private String subject;
+    // 목록에서는 null
+    private String content;
+    private LocalDateTime createDate;
+}
@@ -0,0 +1,35 @@
+package com.mysite.sbb.revision;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface RevisionRepository extends JpaRepository<Revision, Long> {
+
+	Optional<Revision> findTopByPostTypeAndPostIdOrderByNumberDesc(PostType postType, Integer postId);
+
+	List<Revision> findByPostTypeAndPostIdAndNumberBetweenOrderByNumberAsc(PostType postType, Integer postId,
+			int from, int to);
+
+	Page<RevisionSummary> findByPostTypeAndPostId(PostType postType, Integer postId, Pageable pageable);
+
+	@Modifying
+	@Query("delete from Revision r where r.postType = :postType and r.postId = :postId")
+	int deleteByPost(@Param("postType") PostType postType, @Param("postId") Integer postId);
+
+	@Modifying
+	@Query("delete from Revision r where r.postType = :postType and r.postId in :postIds")
+	int deleteByPostIn(@Param("postType") PostType postType, @Param("postIds") List<Integer> postIds);
+
+	// 답변보다 먼저 호출
+	@Modifying
+	@Query("delete from Revision r where r.postType = com.mysite.sbb.revision.PostType.ANSWER "
+			+ "and r.postId in (select a.id from Answer a where a.question.id = :questionId)")
+	int deleteAnswerRevisionsByQuestionId(@Param("questionId") Integer questionId);
+}
@@ -0,0 +1,131 @@
+package com.mysite.sbb.revision;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.mysite.sbb.DataNotFoundException;
+
+import lombok.RequiredArgsConstructor;
+
+// 수정할 때마다 이전 본문과 새 본문의 공통 앞/뒤 부분을 뺀 차이만 저장하고,
+// SNAPSHOT_INTERVAL 번째마다 본문 전체를 저장해서 어떤 revision 이든 최대 SNAPSHOT_INTERVAL 개 행으로 복원한다.
+@RequiredArgsConstructor
+@Service
+public class RevisionService {
+
+	private static final int SNAPSHOT_INTERVAL = 20;
+
+	private final RevisionRepository revisionRepository;
+
+	// 본문을 바꾸기 전에 호출, 첫 수정이면 수정 전 본문을 1 번 revision 으로 먼저 남긴다.
+	// 호출하는 쪽에서 글 행을 PESSIMISTIC_WRITE 로 잠가서 같은 글의 수정이 동시에 들어오지 않아야 한다.
+	// 본문 행이 없어서 getContent() 가 null 이면 빈 본문으로 기록한다
+	@Transactional
+	public void recordEdit(PostType postType, Integer postId, LocalDateTime createDate, String oldSubject,
+			String oldContent, String subject, String content) {
+		oldContent = Objects.requireNonNullElse(oldContent, "");
+		content = Objects.requireNonNullElse(content, "");
+		Optional<Revision> last = this.revisionRepository.findTopByPostTypeAndPostIdOrderByNumberDesc(postType, postId);
+		int number;
+		if (last.isPresent()) {
+			number = last.get().getNumber() + 1;
+		} else {
+			this.revisionRepository.save(snapshot(postType, postId, 1, oldSubject, oldContent, createDate));
+			number = 2;
+		}
+		Revision revision = isSnapshot(number)
+				? snapshot(postType, postId, number, subject, content, LocalDateTime.now())
+				: delta(postType, postId, number, subject, oldContent, content);
+		this.revisionRepository.save(revision);
+	}
+
+	public Page<RevisionDTO> getList(PostType postType, Integer postId, int page) {
+		PageRequest pageable = PageRequest.of(page, 20, Sort.by(Sort.Order.desc("number")));
+		return this.revisionRepository.findByPostTypeAndPostId(postType, postId, pageable).map(summary -> {
+			RevisionDTO dto = new RevisionDTO();
+			dto.setNumber(summary.getNumber());
+			dto.setSubject(summary.getSubject());
+			dto.setCreateDate(summary.getCreateDate());
+			return dto;
+		});
+	}
+
+	// 가장 가까운 이전 snapshot 부터 number 까지 차례로 적용
+	public RevisionDTO getRevision(PostType postType, Integer postId, int number) {
+		int base = number - (number - 1) % SNAPSHOT_INTERVAL;
+		List<Revision> chain = this.revisionRepository
+				.findByPostTypeAndPostIdAndNumberBetweenOrderByNumberAsc(postType, postId, base, number);
+		if (chain.isEmpty() || chain.get(0).getNumber() != base || !chain.get(0).isSnapshot()
+				|| chain.get(chain.size() - 1).getNumber() != number) {
+			throw new DataNotFoundException("revision not found");
+		}
+		String content = null;
+		for (Revision revision : chain) {
+			content = revision.isSnapshot() ? Objects.requireNonNullElse(revision.getData(), "")
+					: apply(content, revision);
+		}
+		Revision target = chain.get(chain.size() - 1);
+		RevisionDTO dto = new RevisionDTO();
+		dto.setNumber(target.getNumber());
+		dto.setSubject(target.getSubject());
+		dto.setContent(content);
+		dto.setCreateDate(target.getCreateDate());
+		return dto;
+	}
+
+	static boolean isSnapshot(int number) {
+		return number % SNAPSHOT_INTERVAL == 1;
+	}
+
+	static String apply(String previous, Revision delta) {
+		return previous.substring(0, delta.getPrefix()) + delta.getData()
+				+ previous.substring(previous.length() - delta.getSuffix());
+	}
+
+	private static Revision snapshot(PostType postType, Integer postId, int number, String subject, String content,
+			LocalDateTime createDate) {
+		Revision revision = revision(postType, postId, number, subject, createDate);
+		revision.setSnapshot(true);
+		revision.setData(content);
+		return revision;
+	}
+
+	// 공통 앞부분과 (겹치지 않는) 공통 뒷부분을 제외한 가운데만 저장
+	static Revision delta(PostType postType, Integer postId, int number, String subject, String previous,
+			String content) {
+		int max = Math.min(previous.length(), content.length());
+		int prefix = 0;
+		while (prefix < max && previous.charAt(prefix) == content.charAt(prefix)) {
+			prefix++;
+		}
+		int suffix = 0;
+		while (suffix < max - prefix
+				&& previous.charAt(previous.length() - 1 - suffix) == content.charAt(content.length() - 1 - suffix)) {
+			suffix++;
+		}
+		Revision revision = revision(postType, postId, number, subject, LocalDateTime.now());
+		revision.setPrefix(prefix);
+		revision.setSuffix(suffix);
+		revision.setData(content.substring(prefix, content.length() - suffix));
+		return revision;
+	}
+
+	private static Revision revision(PostType postType, Integer postId, int number, String subject,
+			LocalDateTime createDate) {
+		Revision revision = new Revision();
+		revision.setPostType(postType);
+		revision.setPostId(postId);
+		revision.setNumber(number);
+		revision.setSubject(subject);
+		revision.setCreateDate(createDate);
+		return revision;
+	}
+}
@@ -0,0 +1,11 @@
+package com.mysite.sbb.revision;
+
+import java.time.LocalDateTime;
+
+public interface RevisionSummary {
+	int getNumber();
+
+	String getSubject();
+
+	LocalDateTime getCreateDate();
+}
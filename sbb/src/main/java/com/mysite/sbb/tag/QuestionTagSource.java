@@ -0,0 +1,7 @@
+package com.mysite.sbb.tag;
+
+public interface QuestionTagSource {
+	Integer getQuestionId();
+
+	String getName();
+}
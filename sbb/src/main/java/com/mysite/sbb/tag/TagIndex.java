@@ -0,0 +1,242 @@
+package com.mysite.sbb.tag;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.mysite.sbb.Transactions;
+import com.mysite.sbb.question.QuestionRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// 태그별 질문 ID bitmap 과 삭제되지 않은 질문 전체(live) bitmap.
+// 질문 ID 는 작성 순서대로 증가하므로 교집합 bitmap 을 큰 ID 부터 읽으면 최신순 목록이 되고,
+// 페이지에 해당하는 ID 만 DB 에서 읽는다.
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class TagIndex {
+
+	// refresh 에서 IN 목록 하나에 넣을 최대 ID 수
+	private static final int REFRESH_CHUNK_SIZE = 500;
+
+	private final TagRepository tagRepository;
+	private final QuestionRepository questionRepository;
+
+	@Value("${sbb.tag.facet-limit:20}")
+	private int facetLimit;
+
+	// refresh 에서 마지막 갱신 시각보다 이만큼 앞에서부터 다시 읽는다 (늦게 커밋된 변경과 노드 간 시계 차이)
+	@Value("${sbb.tag.refresh-overlap:PT1M}")
+	private Duration refreshOverlap;
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private Map<String, RoaringBitmap> tags = new HashMap<>();
+	private RoaringBitmap live = new RoaringBitmap();
+	// rebuild 중에 들어온 변경, rebuild 가 끝나면 새 bitmap 에 다시 적용한다 (write lock 으로 보호)
+	private List<Change> pending;
+	// 마지막 rebuild 또는 refresh 를 시작한 시각
+	private volatile LocalDateTime refreshedAt = LocalDateTime.now();
+
+	// 새 질문이면 previous 는 비어 있음.
+	// 트랜잭션 안에서 호출하면 커밋된 뒤에 반영하고 롤백되면 버린다
+	public void put(int questionId, Collection<String> previous, Collection<String> current) {
+		Change change = new Change(questionId, List.copyOf(previous), List.copyOf(current), true);
+		Transactions.afterCommit(() -> apply(change));
+	}
+
+	public void remove(int questionId, Collection<String> names) {
+		Change change = new Change(questionId, List.copyOf(names), List.of(), false);
+		Transactions.afterCommit(() -> apply(change));
+	}
+
+	// 태그를 모르는 질문 (DB 에서 찾을 수 없는 ID), 모든 태그에서 지운다
+	public void forget(int questionId) {
+		apply(new Change(questionId, null, List.of(), false));
+	}
+
+	// names 를 모두 가진 질문 중 page 번째 페이지의 ID (최신순)와, 그 질문들에 붙은 태그별 개수 상위 facetLimit 개
+	public Result query(List<String> names, int page, int size) {
+		this.lock.readLock().lock();
+		try {
+			RoaringBitmap filtered = this.live;
+			for (String name : names) {
+				RoaringBitmap tagged = this.tags.get(name);
+				if (tagged == null) {
+					filtered = new RoaringBitmap();
+					break;
+				}
+				filtered = RoaringBitmap.and(filtered, tagged);
+			}
+			int total = filtered.getCardinality();
+			List<Integer> ids = new ArrayList<>(size);
+			for (long i = (long) page * size; i < Math.min(total, (long) page * size + size); i++) {
+				ids.add(filtered.select(total - 1 - (int) i));
+			}
+			return new Result(ids, total, facets(filtered, names.isEmpty()));
+		} finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	@Transactional(readOnly = true)
+	@EventListener(ApplicationReadyEvent.class)
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	public synchronized void rebuild() {
+		long start = System.currentTimeMillis();
+		LocalDateTime startedAt = LocalDateTime.now();
+		RoaringBitmap rebuiltLive = new RoaringBitmap();
+		Map<String, RoaringBitmap> rebuiltTags = new HashMap<>();
+		this.lock.writeLock().lock();
+		try {
+			this.pending = new ArrayList<>();
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+		try {
+			try (Stream<Integer> ids = this.questionRepository.streamLiveIds()) {
+				ids.forEach(id -> rebuiltLive.add(id.intValue()));
+			}
+			try (Stream<QuestionTagSource> rows = this.tagRepository.streamQuestionTags()) {
+				rows.forEach(row -> rebuiltTags.computeIfAbsent(row.getName(), n -> new RoaringBitmap())
+						.add(row.getQuestionId().intValue()));
+			}
+			rebuiltLive.runOptimize();
+			rebuiltTags.values().forEach(RoaringBitmap::runOptimize);
+			// 스트리밍하는 동안 커밋된 변경은 순서대로 다시 적용한 뒤 교체
+			this.lock.writeLock().lock();
+			try {
+				this.pending.forEach(change -> change.applyTo(rebuiltTags, rebuiltLive));
+				this.live = rebuiltLive;
+				this.tags = rebuiltTags;
+			} finally {
+				this.lock.writeLock().unlock();
+			}
+		} finally {
+			this.lock.writeLock().lock();
+			try {
+				this.pending = null;
+			} finally {
+				this.lock.writeLock().unlock();
+			}
+		}
+		this.refreshedAt = startedAt;
+		log.info("Rebuilt tag index with {} questions and {} tags in {} ms", rebuiltLive.getCardinality(),
+				rebuiltTags.size(), System.currentTimeMillis() - start);
+	}
+
+	// 다른 노드에서 작성, 수정, 삭제된 질문의 태그를 다시 읽어 반영한다.
+	// 읽은 뒤 이 노드에서 커밋된 변경을 이전 상태로 덮어쓸 수 있지만 겹쳐 읽는 다음 refresh 에서 다시 맞춰진다.
+	// 영구 삭제된 질문은 찾을 수 없으므로 목록 조회에서 빠진 ID 를 forget 하거나 다음 rebuild 에서 지워진다
+	@Transactional(readOnly = true)
+	public synchronized void refresh() {
+		LocalDateTime startedAt = LocalDateTime.now();
+		List<Integer> changed = this.questionRepository.findChangedIds(this.refreshedAt.minus(this.refreshOverlap));
+		for (int from = 0; from < changed.size(); from += REFRESH_CHUNK_SIZE) {
+			List<Integer> chunk = changed.subList(from, Math.min(changed.size(), from + REFRESH_CHUNK_SIZE));
+			Set<Integer> liveIds = new HashSet<>(this.questionRepository.findLiveIdsIn(chunk));
+			Map<Integer, List<String>> names = this.tagRepository.findNamesByQuestionIds(chunk).stream()
+					.collect(Collectors.groupingBy(QuestionTagSource::getQuestionId,
+							Collectors.mapping(QuestionTagSource::getName, Collectors.toList())));
+			for (Integer id : chunk) {
+				boolean alive = liveIds.contains(id);
+				apply(new Change(id, null, alive ? names.getOrDefault(id, List.of()) : List.of(), alive));
+			}
+		}
+		this.refreshedAt = startedAt;
+		if (!changed.isEmpty()) {
+			log.debug("Refreshed {} questions in tag index", changed.size());
+		}
+	}
+
+	// 필터가 없으면 교집합 없이 태그 bitmap 크기를 그대로 쓴다
+	private Map<String, Integer> facets(RoaringBitmap filtered, boolean unfiltered) {
+		// 개수가 같으면 이름순으로 앞선 태그를 남긴다
+		Comparator<Map.Entry<String, Integer>> order = Map.Entry.<String, Integer>comparingByValue()
+				.thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder()));
+		PriorityQueue<Map.Entry<String, Integer>> top = new PriorityQueue<>(order);
+		for (Map.Entry<String, RoaringBitmap> entry : this.tags.entrySet()) {
+			int count = unfiltered ? entry.getValue().getCardinality()
+					: RoaringBitmap.andCardinality(filtered, entry.getValue());
+			if (count == 0) {
+				continue;
+			}
+			top.add(Map.entry(entry.getKey(), count));
+			if (top.size() > this.facetLimit) {
+				top.poll();
+			}
+		}
+		List<Map.Entry<String, Integer>> sorted = new ArrayList<>(top);
+		sorted.sort(order.reversed());
+		Map<String, Integer> facets = new LinkedHashMap<>();
+		sorted.forEach(e -> facets.put(e.getKey(), e.getValue()));
+		return facets;
+	}
+
+	private void apply(Change change) {
+		this.lock.writeLock().lock();
+		try {
+			change.applyTo(this.tags, this.live);
+			if (this.pending != null) {
+				this.pending.add(change);
+			}
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	public record Result(List<Integer> ids, long total, Map<String, Integer> facets) {
+	}
+
+	// previous 가 null 이면 current 에 없는 모든 태그에서 지운다
+	private record Change(int questionId, List<String> previous, List<String> current, boolean alive) {
+		void applyTo(Map<String, RoaringBitmap> tags, RoaringBitmap live) {
+			if (this.alive) {
+				live.add(this.questionId);
+			} else {
+				live.remove(this.questionId);
+			}
+			if (this.previous == null) {
+				tags.entrySet().removeIf(entry -> !this.current.contains(entry.getKey())
+						&& entry.getValue().checkedRemove(this.questionId) && entry.getValue().isEmpty());
+			} else {
+				for (String name : this.previous) {
+					if (!this.current.contains(name)) {
+						RoaringBitmap tagged = tags.get(name);
+						if (tagged != null) {
+							tagged.remove(this.questionId);
+							if (tagged.isEmpty()) {
+								tags.remove(name);
+							}
+						}
+					}
+				}
+			}
+			for (String name : this.current) {
+				tags.computeIfAbsent(name, n -> new RoaringBitmap()).add(this.questionId);
+			}
+		}
+	}
+}
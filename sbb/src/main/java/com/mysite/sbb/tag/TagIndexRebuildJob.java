@@ -0,0 +1,47 @@
+package com.mysite.sbb.tag;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.support.PeriodicTrigger;
+import org.springframework.stereotype.Component;
+
+import com.mysite.sbb.job.Job;
+import com.mysite.sbb.job.JobContext;
+
+import lombok.RequiredArgsConstructor;
+
+// TagIndex 를 주기적으로 다시 만드는 작업.
+// 다른 노드의 변경은 TagIndexRefreshJob 이 반영하고, 이 작업은 그 사이 놓친 변경 (영구 삭제 등)을 바로잡는다
+@RequiredArgsConstructor
+@Component
+public class TagIndexRebuildJob implements Job {
+
+	private final TagIndex tagIndex;
+
+	@Value("${sbb.tag.rebuild-interval:PT1H}")
+	private Duration interval;
+
+	@Override
+	public String getName() {
+		return "tag-index-rebuild";
+	}
+
+	@Override
+	public Trigger getTrigger() {
+		PeriodicTrigger trigger = new PeriodicTrigger(this.interval);
+		trigger.setInitialDelay(this.interval);
+		return trigger;
+	}
+
+	@Override
+	public void execute(JobContext context) {
+		this.tagIndex.rebuild();
+	}
+
+	@Override
+	public boolean isExclusive() {
+		return false;
+	}
+}
@@ -0,0 +1,47 @@
+package com.mysite.sbb.tag;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.support.PeriodicTrigger;
+import org.springframework.stereotype.Component;
+
+import com.mysite.sbb.job.Job;
+import com.mysite.sbb.job.JobContext;
+
+import lombok.RequiredArgsConstructor;
+
+// 다른 노드에서 작성, 수정, 삭제된 질문을 TagIndex 에 반영하는 작업.
+// 노드 간 태그 목록의 차이는 최대 refresh-interval 이다 (영구 삭제는 rebuild-interval)
+@RequiredArgsConstructor
+@Component
+public class TagIndexRefreshJob implements Job {
+
+	private final TagIndex tagIndex;
+
+	@Value("${sbb.tag.refresh-interval:PT15S}")
+	private Duration interval;
+
+	@Override
+	public String getName() {
+		return "tag-index-refresh";
+	}
+
+	@Override
+	public Trigger getTrigger() {
+		PeriodicTrigger trigger = new PeriodicTrigger(this.interval);
+		trigger.setInitialDelay(this.interval);
+		return trigger;
+	}
+
+	@Override
+	public void execute(JobContext context) {
+		this.tagIndex.refresh();
+	}
+
+	@Override
+	public boolean isExclusive() {
+		return false;
+	}
+}
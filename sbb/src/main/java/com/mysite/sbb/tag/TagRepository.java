@@ -0,0 +1,30 @@
+package com.mysite.sbb.tag;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import jakarta.persistence.QueryHint;
+
+public interface TagRepository extends JpaRepository<Tag, Integer> {
+
+	List<Tag> findByNameIn(Collection<String> names);
+
+	// 동시에 같은 태그를 만들어도 unique 제약 위반 없이 하나만 남는다
+	@Modifying
+	@Query(value = "insert ignore into tag (name) values (:name)", nativeQuery = true)
+	int insertIfAbsent(@Param("name") String name);
+
+	@Query("select q.id as questionId, t.name as name from Question q join q.tags t where q.id in :questionIds")
+	List<QuestionTagSource> findNamesByQuestionIds(@Param("questionIds") Collection<Integer> questionIds);
+
+	@QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "-2147483648"))
+	@Query("select q.id as questionId, t.name as name from Question q join q.tags t where q.deleteDate is null")
+	Stream<QuestionTagSource> streamQuestionTags();
+}
@@ -0,0 +1,77 @@
+package com.mysite.sbb.tag;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+@Service
+public class TagService {
+
+	private static final int MAX_TAGS = 5;
+	private static final Pattern NAME = Pattern.compile("[a-z0-9가-힣][a-z0-9가-힣+#.\\-]{0,49}");
+
+	private final TagRepository tagRepository;
+
+	// 공백을 빼고 소문자로 바꾼 뒤 중복을 제거, 형식이 맞지 않으면 400
+	public List<String> normalize(Collection<String> names) {
+		Set<String> normalized = new LinkedHashSet<>();
+		for (String name : names) {
+			String tag = name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+			if (tag.isEmpty()) {
+				continue;
+			}
+			if (!NAME.matcher(tag).matches()) {
+				throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid tag: " + name);
+			}
+			normalized.add(tag);
+		}
+		if (normalized.size() > MAX_TAGS) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "태그는 최대 " + MAX_TAGS + "개까지 지정할 수 있습니다.");
+		}
+		return new ArrayList<>(normalized);
+	}
+
+	// 없는 태그는 만들어서 반환
+	@Transactional
+	public Set<Tag> resolve(List<String> names) {
+		if (names.isEmpty()) {
+			return new HashSet<>();
+		}
+		List<Tag> tags = this.tagRepository.findByNameIn(names);
+		if (tags.size() < names.size()) {
+			Set<String> found = tags.stream().map(Tag::getName).collect(Collectors.toSet());
+			names.stream().filter(name -> !found.contains(name)).forEach(this.tagRepository::insertIfAbsent);
+			tags = this.tagRepository.findByNameIn(names);
+		}
+		return new HashSet<>(tags);
+	}
+
+	// 질문 ID 별 태그 이름 (이름순), 태그가 없는 질문은 포함하지 않음
+	public Map<Integer, List<String>> getNames(Collection<Integer> questionIds) {
+		if (questionIds.isEmpty()) {
+			return Map.of();
+		}
+		Map<Integer, List<String>> names = new HashMap<>();
+		for (QuestionTagSource row : this.tagRepository.findNamesByQuestionIds(questionIds)) {
+			names.computeIfAbsent(row.getQuestionId(), id -> new ArrayList<>()).add(row.getName());
+		}
+		names.values().forEach(list -> list.sort(null));
+		return names;
+	}
+}
@@ -0,0 +1,73 @@
+package com.mysite.sbb.user;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.mysite.sbb.KeysetPage;
+import com.mysite.sbb.answer.AnswerSummary;
+import com.mysite.sbb.question.QuestionSummary;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/api/users")
+public class UserActivityRestController {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final UserActivityService userActivityService;
+
+    // 사용자가 작성한 질문
+    @GetMapping("/{username}/questions")
+    public ResponseEntity<KeysetPage<QuestionSummary>> getQuestions(@PathVariable("username") String username,
+                                                                    @RequestParam(value = "cursor", required = false) String cursor,
+                                                                    @RequestParam(value = "size", defaultValue = "20") int size) {
+        log.info("Received request to get questions of user: {}, cursor: {}", username, cursor);
+        return new ResponseEntity<>(this.userActivityService.getQuestions(username, cursor, pageSize(size)), HttpStatus.OK);
+    }
+
+    // 사용자가 작성한 답변
+    @GetMapping("/{username}/answers")
+    public ResponseEntity<KeysetPage<AnswerSummary>> getAnswers(@PathVariable("username") String username,
+                                                                @RequestParam(value = "cursor", required = false) String cursor,
+                                                                @RequestParam(value = "size", defaultValue = "20") int size) {
+        log.info("Received request to get answers of user: {}, cursor: {}", username, cursor);
+        return new ResponseEntity<>(this.userActivityService.getAnswers(username, cursor, pageSize(size)), HttpStatus.OK);
+    }
+
+    // 사용자가 추천한 질문
+    @GetMapping("/{username}/voted-questions")
+    public ResponseEntity<KeysetPage<QuestionSummary>> getVotedQuestions(@PathVariable("username") String username,
+                                                                         @RequestParam(value = "cursor", required = false) String cursor,
+                                                                         @RequestParam(value = "size", defaultValue = "20") int size) {
+        log.info("Received request to get voted questions of user: {}, cursor: {}", username, cursor);
+        return new ResponseEntity<>(this.userActivityService.getVotedQuestions(username, cursor, pageSize(size)), HttpStatus.OK);
+    }
+
+    // 사용자가 추천한 답변
+    @GetMapping("/{username}/voted-answers")
+    public ResponseEntity<KeysetPage<AnswerSummary>> getVotedAnswers(@PathVariable("username") String username,
+                                                                     @RequestParam(value = "cursor", required = false) String cursor,
+                                                                     @RequestParam(value = "size", defaultValue = "20") int size) {
+        log.info("Received request to get voted answers of user: {}, cursor: {}", username, cursor);
+        return new ResponseEntity<>(this.userActivityService.getVotedAnswers(username, cursor, pageSize(size)), HttpStatus.OK);
+    }
+
+    // 사용자 활동 통계
+    @GetMapping("/{username}/stats")
+    public ResponseEntity<UserStatsDTO> getStats(@PathVariable("username") String username) {
+        return new ResponseEntity<>(this.userActivityService.getStats(username), HttpStatus.OK);
+    }
+
+    private int pageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+}
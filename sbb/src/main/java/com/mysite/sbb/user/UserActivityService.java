@@ -0,0 +1,108 @@
+package com.mysite.sbb.user;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.mysite.sbb.KeysetCursor;
+import com.mysite.sbb.KeysetPage;
+import com.mysite.sbb.answer.AnswerRepository;
+import com.mysite.sbb.answer.AnswerSummary;
+import com.mysite.sbb.question.QuestionRepository;
+import com.mysite.sbb.question.QuestionSummary;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+@Service
+public class UserActivityService {
+
+	// 첫 페이지 cursor, 모든 createDate 보다 뒤
+	private static final LocalDateTime FIRST_DATE = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+	private final UserService userService;
+	private final QuestionRepository questionRepository;
+	private final AnswerRepository answerRepository;
+
+	// 접근 순서로 정렬해서 statsCacheSize 를 넘으면 가장 오래 조회되지 않은 사용자부터 제거 (statsCache 로 동기화)
+	private final Map<String, CachedStats> statsCache = new LinkedHashMap<>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, CachedStats> eldest) {
+			return size() > statsCacheSize;
+		}
+	};
+
+	@Value("${sbb.user.stats-ttl:PT1M}")
+	private Duration statsTtl;
+
+	@Value("${sbb.user.stats-cache-size:10000}")
+	private int statsCacheSize;
+
+	public KeysetPage<QuestionSummary> getQuestions(String username, String cursor, int size) {
+		SiteUser author = this.userService.getUser(username);
+		KeysetCursor after = cursor == null ? null : KeysetCursor.parse(cursor);
+		List<QuestionSummary> rows = this.questionRepository.findSummariesByAuthor(author,
+				after == null ? FIRST_DATE : after.dateKey(), after == null ? Integer.MAX_VALUE : after.id(),
+				PageRequest.of(0, size + 1));
+		return KeysetPage.of(rows, size, q -> KeysetCursor.of(q.getCreateDate(), q.getId()));
+	}
+
+	public KeysetPage<AnswerSummary> getAnswers(String username, String cursor, int size) {
+		SiteUser author = this.userService.getUser(username);
+		KeysetCursor after = cursor == null ? null : KeysetCursor.parse(cursor);
+		List<AnswerSummary> rows = this.answerRepository.findSummariesByAuthor(author,
+				after == null ? FIRST_DATE : after.dateKey(), after == null ? Integer.MAX_VALUE : after.id(),
+				PageRequest.of(0, size + 1));
+		return KeysetPage.of(rows, size, a -> KeysetCursor.of(a.getCreateDate(), a.getId()));
+	}
+
+	// 투표 시각은 저장하지 않으므로 투표한 글은 ID 역순으로 정렬
+	public KeysetPage<QuestionSummary> getVotedQuestions(String username, String cursor, int size) {
+		SiteUser voter = this.userService.getUser(username);
+		int afterId = cursor == null ? Integer.MAX_VALUE : KeysetCursor.parse(cursor).id();
+		List<QuestionSummary> rows = this.questionRepository.findSummariesByVoter(voter, afterId,
+				PageRequest.of(0, size + 1));
+		return KeysetPage.of(rows, size, q -> KeysetCursor.of(q.getId(), q.getId()));
+	}
+
+	public KeysetPage<AnswerSummary> getVotedAnswers(String username, String cursor, int size) {
+		SiteUser voter = this.userService.getUser(username);
+		int afterId = cursor == null ? Integer.MAX_VALUE : KeysetCursor.parse(cursor).id();
+		List<AnswerSummary> rows = this.answerRepository.findSummariesByVoter(voter, afterId,
+				PageRequest.of(0, size + 1));
+		return KeysetPage.of(rows, size, a -> KeysetCursor.of(a.getId(), a.getId()));
+	}
+
+	// 사용자별 글/투표 수는 statsTtl 동안 캐시
+	public UserStatsDTO getStats(String username) {
+		long now = System.currentTimeMillis();
+		CachedStats cached;
+		synchronized (this.statsCache) {
+			cached = this.statsCache.get(username);
+		}
+		if (cached != null && cached.expiresAt() > now) {
+			return cached.stats();
+		}
+		SiteUser user = this.userService.getUser(username);
+		UserStatsDTO stats = new UserStatsDTO();
+		stats.setQuestionCount(this.questionRepository.countByAuthorAndDeleteDateIsNull(user));
+		stats.setAnswerCount(this.answerRepository.countByAuthor(user));
+		stats.setVotedQuestionCount(this.questionRepository.countByVoter(user));
+		stats.setVotedAnswerCount(this.answerRepository.countByVoter(user));
+		synchronized (this.statsCache) {
+			this.statsCache.put(username, new CachedStats(stats, now + this.statsTtl.toMillis()));
+		}
+		return stats;
+	}
+
+	private record CachedStats(UserStatsDTO stats, long expiresAt) {
+	}
+}
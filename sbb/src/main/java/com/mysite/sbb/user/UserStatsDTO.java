@@ -0,0 +1,13 @@
+package com.mysite.sbb.user;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class UserStatsDTO {
+    private long questionCount;
+    private long answerCount;
+    private long votedQuestionCount;
+    private long votedAnswerCount;
+}
@@ -0,0 +1,91 @@
+-- 운영(prod 프로필, ddl-auto=none) DB 에 배포 전에 한 번 실행하는 스키마 변경 (MySQL 8, InnoDB).
+-- V1 은 기존 question, answer, site_user, question_voter, answer_voter 테이블이다.
+-- 엔티티 매핑과 같은 이름, 타입으로 맞췄으므로 ddl-auto=update 로 만든 개발 DB 와 같은 스키마가 된다.
+
+-- 백그라운드 작업 lease 와 checkpoint (JobScheduler)
+create table job_lease (
+    name varchar(100) not null,
+    owner varchar(200),
+    lease_until datetime(6),
+    checkpoint integer not null,
+    primary key (name)
+) engine=InnoDB;
+
+-- 질문/답변 본문 (ContentStore), search_prefix 는 압축한 본문의 검색용 앞부분
+create table content_body (
+    id bigint not null auto_increment,
+    plain text,
+    compressed longblob,
+    search_prefix text,
+    `length` integer not null,
+    primary key (id)
+) engine=InnoDB;
+
+-- 질문: 본문 분리, 소프트 삭제, archive stub, 목록/활동/태그 갱신용 인덱스
+alter table question
+    add column body_id bigint,
+    add column delete_date datetime(6),
+    add column archive_date datetime(6),
+    add constraint uk_question_body unique (body_id),
+    add index idx_question_create_date (create_date),
+    add index idx_question_author_create_date (author_id, create_date, id),
+    add index idx_question_modify_date (modify_date),
+    add index idx_question_delete_date (delete_date);
+
+-- 답변: 본문 분리, 추천 수 컬럼 (AnswerVoteCountJob 이 채운다), 답변 목록 정렬별 인덱스
+alter table answer
+    add column body_id bigint,
+    add column vote_count integer not null default 0,
+    add constraint uk_answer_body unique (body_id),
+    add index idx_answer_create_date (create_date),
+    add index idx_answer_author_create_date (author_id, create_date, id),
+    add index idx_answer_question_create_date (question_id, create_date, id),
+    add index idx_answer_question_vote_count (question_id, vote_count, id);
+
+-- 사용자별 추천 목록과 통계
+alter table question_voter
+    add index idx_question_voter_voter (voter_id, question_id);
+
+alter table answer_voter
+    add index idx_answer_voter_voter (voter_id, answer_id);
+
+-- 수정 이력 (RevisionService)
+create table revision (
+    id bigint not null auto_increment,
+    post_type varchar(20),
+    post_id integer,
+    number integer not null,
+    snapshot bit not null,
+    prefix integer not null,
+    suffix integer not null,
+    data mediumtext,
+    subject varchar(200),
+    create_date datetime(6),
+    primary key (id),
+    constraint uk_revision_post_number unique (post_type, post_id, number)
+) engine=InnoDB;
+
+-- 태그 (TagIndex)
+create table tag (
+    id integer not null auto_increment,
+    name varchar(50),
+    primary key (id),
+    constraint uk_tag_name unique (name)
+) engine=InnoDB;
+
+create table question_tag (
+    question_id integer not null,
+    tag_id integer not null,
+    primary key (question_id, tag_id),
+    index idx_question_tag_tag (tag_id, question_id),
+    constraint fk_question_tag_question foreign key (question_id) references question (id),
+    constraint fk_question_tag_tag foreign key (tag_id) references tag (id)
+) engine=InnoDB;
+
+-- 보관된 답변 ID -> 질문 ID (ArchiveService)
+create table archived_answer (
+    answer_id integer not null,
+    question_id integer,
+    primary key (answer_id),
+    index idx_archived_answer_question (question_id)
+) engine=InnoDB;
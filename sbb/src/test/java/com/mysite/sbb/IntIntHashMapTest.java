@@ -0,0 +1,60 @@
+package com.mysite.sbb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class IntIntHashMapTest {
+
+	@Test
+	void putGetRemove() {
+		IntIntHashMap map = new IntIntHashMap();
+		assertEquals(-1, map.get(1, -1));
+		map.put(1, 10);
+		map.put(0, 0);
+		map.put(-5, 50);
+		map.put(1, 11);
+		assertEquals(3, map.size());
+		assertEquals(11, map.get(1, -1));
+		assertEquals(0, map.get(0, -1));
+		assertEquals(50, map.get(-5, -1));
+		assertTrue(map.containsKey(-5));
+
+		assertEquals(11, map.remove(1, -1));
+		assertEquals(-1, map.remove(1, -1));
+		assertFalse(map.containsKey(1));
+		assertEquals(2, map.size());
+
+		map.clear();
+		assertEquals(0, map.size());
+		assertFalse(map.containsKey(0));
+	}
+
+	// 삭제 표시가 쌓여도 빈 칸이 남도록 재배치되어 조회가 끝나고, HashMap 과 같은 결과를 낸다
+	@Test
+	void matchesHashMapUnderRandomChurn() {
+		IntIntHashMap map = new IntIntHashMap(4);
+		Map<Integer, Integer> expected = new HashMap<>();
+		Random random = new Random(7);
+		for (int i = 0; i < 200_000; i++) {
+			int key = random.nextInt(5_000) - 2_500;
+			if (random.nextInt(3) == 0) {
+				assertEquals(expected.getOrDefault(key, -1).intValue(), map.remove(key, -1));
+				expected.remove(key);
+			} else {
+				map.put(key, i);
+				expected.put(key, i);
+			}
+		}
+		assertEquals(expected.size(), map.size());
+		for (int key = -2_500; key < 2_500; key++) {
+			assertEquals(expected.getOrDefault(key, -1).intValue(), map.get(key, -1));
+		}
+	}
+}
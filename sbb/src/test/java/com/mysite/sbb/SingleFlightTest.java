@@ -0,0 +1,126 @@
+package com.mysite.sbb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+	private static final int CALLERS = 16;
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+	private final List<Thread> threads = new ArrayList<>();
+
+	@AfterEach
+	void tearDown() {
+		this.executor.shutdownNow();
+	}
+
+	@Test
+	void concurrentCallersShareOneLoad() throws Exception {
+		SingleFlight<Integer, Object> flight = new SingleFlight<>();
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		Object value = new Object();
+
+		List<Future<Object>> results = callConcurrently(() -> flight.load(1, () -> {
+			loads.incrementAndGet();
+			await(release);
+			return value;
+		}));
+		release.countDown();
+
+		for (Future<Object> result : results) {
+			assertSame(value, result.get(5, TimeUnit.SECONDS));
+		}
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	void concurrentCallersShareTheException() throws Exception {
+		SingleFlight<Integer, Object> flight = new SingleFlight<>();
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		IllegalStateException failure = new IllegalStateException("load failed");
+
+		List<Future<Object>> results = callConcurrently(() -> flight.load(1, () -> {
+			loads.incrementAndGet();
+			await(release);
+			throw failure;
+		}));
+		release.countDown();
+
+		for (Future<Object> result : results) {
+			ExecutionException thrown = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+			assertSame(failure, thrown.getCause());
+		}
+		assertEquals(1, loads.get());
+	}
+
+	// 결과를 보관하지 않으므로 끝난 뒤의 호출과 다른 key 의 호출은 각자 다시 읽는다
+	@Test
+	void loadsAgainAfterCompletionAndPerKey() {
+		SingleFlight<Integer, Integer> flight = new SingleFlight<>();
+		AtomicInteger loads = new AtomicInteger();
+		assertEquals(1, flight.load(1, loads::incrementAndGet));
+		assertEquals(2, flight.load(1, loads::incrementAndGet));
+		assertEquals(3, flight.load(2, loads::incrementAndGet));
+		assertThrows(IllegalStateException.class, () -> flight.load(1, () -> {
+			throw new IllegalStateException();
+		}));
+		assertEquals(4, flight.load(1, loads::incrementAndGet));
+	}
+
+	// 모든 호출이 loader 안 또는 먼저 시작한 호출의 결과를 기다리는 상태가 될 때까지 기다린 뒤 반환
+	private List<Future<Object>> callConcurrently(Supplier<Object> call) throws InterruptedException {
+		List<Future<Object>> results = new ArrayList<>();
+		for (int i = 0; i < CALLERS; i++) {
+			results.add(this.executor.submit(() -> {
+				synchronized (this.threads) {
+					this.threads.add(Thread.currentThread());
+				}
+				return call.get();
+			}));
+		}
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!allWaiting()) {
+			if (System.nanoTime() > deadline) {
+				throw new AssertionError("callers did not block");
+			}
+			Thread.sleep(5);
+		}
+		return results;
+	}
+
+	private boolean allWaiting() {
+		synchronized (this.threads) {
+			return this.threads.size() == CALLERS && this.threads.stream()
+					.allMatch(t -> t.getState() == Thread.State.WAITING || t.getState() == Thread.State.TIMED_WAITING);
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			if (!latch.await(5, TimeUnit.SECONDS)) {
+				throw new AssertionError("not released");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,139 @@
+package com.mysite.sbb.archive;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class ArchiveStoreTest {
+
+	@TempDir
+	Path dir;
+
+	private final List<ArchiveStore> stores = new ArrayList<>();
+
+	@AfterEach
+	void tearDown() throws IOException {
+		for (ArchiveStore store : this.stores) {
+			store.close();
+		}
+	}
+
+	// 같은 질문을 여러 번 쓰면 마지막 레코드를 읽고, 다른 노드(새 인스턴스)도 archive.idx 에서 같은 내용을 읽는다
+	@Test
+	void roundTripAcrossSegments() throws IOException {
+		ArchiveStore writer = store(100_000);
+		Random random = new Random(1);
+		Map<Integer, byte[]> expected = new HashMap<>();
+		for (int i = 0; i < 3_000; i++) {
+			int questionId = 1 + random.nextInt(1_000);
+			byte[] data = data(random, random.nextInt(2_000));
+			writer.append(questionId, new int[] { questionId * 10, questionId * 10 + 1 }, data);
+			expected.put(questionId, data);
+		}
+		try (Stream<Path> files = Files.list(this.dir)) {
+			assertTrue(files.count() > 2, "segment-size 를 넘으면 새 세그먼트를 만든다");
+		}
+
+		ArchiveStore reader = store(100_000);
+		for (Map.Entry<Integer, byte[]> entry : expected.entrySet()) {
+			assertArrayEquals(entry.getValue(), writer.read(entry.getKey()));
+			assertArrayEquals(entry.getValue(), reader.read(entry.getKey()));
+		}
+		assertNull(reader.read(5_000));
+		assertEquals(expected.size(), reader.size());
+
+		Map<Integer, Integer> answers = new HashMap<>();
+		reader.forEachAnswer(answers::put);
+		expected.keySet().forEach(questionId -> {
+			assertEquals(questionId, answers.get(questionId * 10));
+			assertEquals(questionId, answers.get(questionId * 10 + 1));
+		});
+	}
+
+	// 먼저 만든 인스턴스도 다른 노드가 덧붙인 레코드를 조회할 때 읽어 들인다
+	@Test
+	void readsRecordsAppendedByAnotherNode() throws IOException {
+		ArchiveStore reader = store(100_000);
+		assertNull(reader.read(1));
+
+		ArchiveStore writer = store(100_000);
+		writer.append(1, new int[] { 10 }, bytes("first"));
+		assertArrayEquals(bytes("first"), reader.read(1));
+
+		writer.append(1, new int[] { 10 }, bytes("second"));
+		writer.append(2, new int[0], bytes("other"));
+		assertArrayEquals(bytes("other"), reader.read(2));
+		assertArrayEquals(bytes("second"), reader.read(1));
+	}
+
+	// 쓰다가 끊긴 archive.idx 레코드는 읽지 않고, 다음 writer 가 잘라낸 뒤 이어서 쓴다
+	@Test
+	void skipsAndTruncatesTornIndexTail() throws IOException {
+		ArchiveStore writer = store(100_000);
+		writer.append(1, new int[] { 10, 11 }, bytes("one"));
+		writer.append(2, new int[] { 20 }, bytes("two"));
+		writer.close();
+		long intact = Files.size(this.dir.resolve("archive.idx"));
+		try (FileChannel index = FileChannel.open(this.dir.resolve("archive.idx"), StandardOpenOption.WRITE,
+				StandardOpenOption.APPEND)) {
+			index.write(ByteBuffer.wrap(new byte[] { 0, 0, 0, 3, 0, 0, 0, 1, 0 }));
+		}
+
+		ArchiveStore reader = store(100_000);
+		assertArrayEquals(bytes("one"), reader.read(1));
+		assertNull(reader.read(3));
+		Map<Integer, Integer> answers = new HashMap<>();
+		reader.forEachAnswer(answers::put);
+		assertEquals(Map.of(10, 1, 11, 1, 20, 2), answers);
+
+		ArchiveStore next = store(100_000);
+		next.append(3, new int[] { 30 }, bytes("three"));
+		assertEquals(intact + 4 + 4 + 8 + 4 + 4 + 4 + 4, Files.size(this.dir.resolve("archive.idx")));
+
+		ArchiveStore restarted = store(100_000);
+		assertArrayEquals(bytes("one"), restarted.read(1));
+		assertArrayEquals(bytes("two"), restarted.read(2));
+		assertArrayEquals(bytes("three"), restarted.read(3));
+		assertArrayEquals(bytes("three"), reader.read(3));
+	}
+
+	private ArchiveStore store(int segmentSize) {
+		ArchiveStore store = new ArchiveStore();
+		ReflectionTestUtils.setField(store, "dir", this.dir.toString());
+		ReflectionTestUtils.setField(store, "segmentSize", segmentSize);
+		this.stores.add(store);
+		return store;
+	}
+
+	private static byte[] data(Random random, int length) {
+		byte[] data = new byte[length];
+		for (int i = 0; i < length; i++) {
+			data[i] = (byte) ('a' + random.nextInt(5));
+		}
+		return data;
+	}
+
+	private static byte[] bytes(String text) {
+		return text.getBytes(StandardCharsets.UTF_8);
+	}
+}
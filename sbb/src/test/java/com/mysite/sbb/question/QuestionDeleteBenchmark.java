@@ -0,0 +1,183 @@
+package com.mysite.sbb.question;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mysite.sbb.answer.Answer;
+import com.mysite.sbb.answer.AnswerRepository;
+import com.mysite.sbb.content.ContentStore;
+import com.mysite.sbb.user.SiteUser;
+import com.mysite.sbb.user.UserRepository;
+
+// 스레드 크기별 질문 삭제 지연 시간
+// cascade: 이전 방식 (엔티티 cascade remove), bulk: QuestionService.delete 의 집합 단위 삭제,
+// soft: 소프트 삭제 요청 시간과 QuestionPurger 가 나눠서 지우는 chunk 하나의 최대 시간
+@Tag("benchmark")
+@EnabledIfEnvironmentVariable(named = "DB_URL", matches = ".+")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(properties = { "sbb.job.enabled=false", "sbb.warmup.enabled=false",
+		"sbb.question.soft-delete=false" })
+class QuestionDeleteBenchmark {
+
+	private static final int[] THREAD_SIZES = { 10, 100, 1_000, 5_000 };
+	private static final int REPEAT = 3;
+	private static final int VOTERS = 20;
+	private static final int PURGE_CHUNK_SIZE = 500;
+
+	@Autowired
+	private QuestionService questionService;
+
+	@Autowired
+	private QuestionRepository questionRepository;
+
+	@Autowired
+	private AnswerRepository answerRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private ContentStore contentStore;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private TransactionTemplate transactionTemplate;
+	private final List<SiteUser> users = new ArrayList<>();
+
+	@BeforeAll
+	void setUp() {
+		this.transactionTemplate = new TransactionTemplate(this.transactionManager);
+		String prefix = "delete-bench-" + UUID.randomUUID().toString().substring(0, 8);
+		for (int i = 0; i < VOTERS; i++) {
+			SiteUser user = new SiteUser();
+			user.setUsername(prefix + "-" + i);
+			user.setEmail(prefix + "-" + i + "@example.com");
+			user.setPassword("benchmark");
+			this.users.add(this.userRepository.save(user));
+		}
+	}
+
+	@AfterAll
+	void tearDown() {
+		this.userRepository.deleteAll(this.users);
+	}
+
+	@Test
+	void deleteLatencyByThreadSize() {
+		System.out.printf("%8s %12s %12s %12s %16s %14s%n", "answers", "cascade(ms)", "bulk(ms)", "soft(ms)",
+				"purge chunk(ms)", "purge all(ms)");
+		for (int size : THREAD_SIZES) {
+			long[] cascade = new long[REPEAT];
+			long[] bulk = new long[REPEAT];
+			long[] soft = new long[REPEAT];
+			long[] purgeChunk = new long[REPEAT];
+			long[] purgeAll = new long[REPEAT];
+			for (int r = 0; r < REPEAT; r++) {
+				cascade[r] = cascadeDelete(seed(size));
+				bulk[r] = bulkDelete(seed(size));
+				long[] softResult = softDelete(seed(size));
+				soft[r] = softResult[0];
+				purgeChunk[r] = softResult[1];
+				purgeAll[r] = softResult[2];
+			}
+			System.out.printf("%8d %12.1f %12.1f %12.1f %16.1f %14.1f%n", size, median(cascade), median(bulk),
+					median(soft), median(purgeChunk), median(purgeAll));
+		}
+	}
+
+	// Question.answerList 의 cascade remove 로 답변과 본문을 하나씩 읽고 지우는 이전 방식
+	private long cascadeDelete(Integer id) {
+		long start = System.nanoTime();
+		this.transactionTemplate.executeWithoutResult(
+				status -> this.questionRepository.delete(this.questionRepository.findById(id).orElseThrow()));
+		return System.nanoTime() - start;
+	}
+
+	// 컨트롤러처럼 같은 세션에서 질문을 읽고 삭제
+	private long bulkDelete(Integer id) {
+		long start = System.nanoTime();
+		this.transactionTemplate.executeWithoutResult(
+				status -> this.questionService.delete(this.questionService.getQuestion(id)));
+		return System.nanoTime() - start;
+	}
+
+	// 소프트 삭제 요청 시간, purge chunk 하나의 최대 시간, purge 전체 시간
+	private long[] softDelete(Integer id) {
+		QuestionService target = AopTestUtils.getTargetObject(this.questionService);
+		ReflectionTestUtils.setField(target, "softDelete", true);
+		long request;
+		try {
+			long start = System.nanoTime();
+			this.transactionTemplate.executeWithoutResult(
+					status -> this.questionService.delete(this.questionService.getQuestion(id)));
+			request = System.nanoTime() - start;
+		} finally {
+			ReflectionTestUtils.setField(target, "softDelete", false);
+		}
+
+		long purgeStart = System.nanoTime();
+		long maxChunk = 0;
+		int count;
+		do {
+			long start = System.nanoTime();
+			count = this.questionService.purgeAnswers(id, PURGE_CHUNK_SIZE);
+			maxChunk = Math.max(maxChunk, System.nanoTime() - start);
+		} while (count == PURGE_CHUNK_SIZE);
+		long start = System.nanoTime();
+		this.questionService.bulkDelete(id);
+		maxChunk = Math.max(maxChunk, System.nanoTime() - start);
+		return new long[] { request, maxChunk, System.nanoTime() - purgeStart };
+	}
+
+	// 답변마다 본문과 추천 2 개를 가진 스레드
+	private Integer seed(int answers) {
+		return this.transactionTemplate.execute(status -> {
+			Question question = new Question();
+			question.setSubject("delete benchmark");
+			question.setBody(this.contentStore.write(null, "delete benchmark question"));
+			question.setCreateDate(LocalDateTime.now());
+			question.setAuthor(this.users.get(0));
+			question.setVoter(new HashSet<>(this.users));
+			this.questionRepository.save(question);
+
+			List<Answer> thread = new ArrayList<>(answers);
+			for (int i = 0; i < answers; i++) {
+				Answer answer = new Answer();
+				answer.setBody(this.contentStore.write(null, "delete benchmark answer " + i));
+				answer.setCreateDate(LocalDateTime.now());
+				answer.setQuestion(question);
+				answer.setAuthor(this.users.get(i % VOTERS));
+				answer.setVoter(new HashSet<>(Set.of(this.users.get(i % VOTERS), this.users.get((i + 1) % VOTERS))));
+				answer.setVoteCount(2);
+				thread.add(answer);
+			}
+			this.answerRepository.saveAll(thread);
+			return question.getId();
+		});
+	}
+
+	private static double median(long[] nanos) {
+		long[] sorted = nanos.clone();
+		Arrays.sort(sorted);
+		return sorted[sorted.length / 2] / 1_000_000.0;
+	}
+}
@@ -0,0 +1,120 @@
+package com.mysite.sbb.revision;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+// 수정 횟수가 많은 글에서 revision 하나에 저장되는 크기와 임의의 revision 을 복원하는 시간.
+// 저장소는 메모리 목록으로 대신하므로 복원 시간에 DB 조회 시간은 포함되지 않는다.
+@Tag("benchmark")
+class RevisionBenchmark {
+
+	private static final int[] POST_SIZES = { 2_000, 20_000, 100_000 };
+	private static final int EDITS = 500;
+	private static final String[] WORDS = { "spring", "question", "answer", "index", "query", "cache", "thread",
+			"revision", "delta", "snapshot", "게시판", "질문", "답변", "수정" };
+
+	@Test
+	void storageAndReconstruction() {
+		System.out.printf("%10s %8s %16s %16s %10s %12s %12s %12s%n", "post chars", "edits", "full copy(B/rev)",
+				"stored(B/rev)", "ratio", "median(us)", "p99(us)", "max(us)");
+		for (int size : POST_SIZES) {
+			run(size);
+		}
+	}
+
+	private void run(int size) {
+		Random random = new Random(size);
+		List<Revision> stored = new ArrayList<>();
+		RevisionService revisionService = new RevisionService(repository(stored));
+
+		List<String> history = new ArrayList<>();
+		String content = text(random, size);
+		history.add(content);
+		for (int i = 0; i < EDITS; i++) {
+			String edited = edit(random, content);
+			revisionService.recordEdit(PostType.QUESTION, 1, LocalDateTime.now(), "subject", content, "subject",
+					edited);
+			content = edited;
+			history.add(content);
+		}
+
+		long fullBytes = 0;
+		for (String version : history) {
+			fullBytes += version.getBytes(StandardCharsets.UTF_8).length;
+		}
+		long storedBytes = 0;
+		for (Revision revision : stored) {
+			storedBytes += revision.getData().getBytes(StandardCharsets.UTF_8).length;
+		}
+
+		// 한 번 전체를 복원해서 결과를 확인하고 JIT 를 데운 뒤 측정
+		for (int number = 1; number <= history.size(); number++) {
+			assertEquals(history.get(number - 1),
+					revisionService.getRevision(PostType.QUESTION, 1, number).getContent());
+		}
+		long[] nanos = new long[history.size()];
+		for (int number = 1; number <= history.size(); number++) {
+			long start = System.nanoTime();
+			revisionService.getRevision(PostType.QUESTION, 1, number);
+			nanos[number - 1] = System.nanoTime() - start;
+		}
+		Arrays.sort(nanos);
+		System.out.printf("%10d %8d %16d %16d %10.3f %12.1f %12.1f %12.1f%n", size, EDITS,
+				fullBytes / history.size(), storedBytes / stored.size(), (double) storedBytes / fullBytes,
+				nanos[nanos.length / 2] / 1000.0, nanos[nanos.length * 99 / 100] / 1000.0,
+				nanos[nanos.length - 1] / 1000.0);
+	}
+
+	// number 가 1 부터 차례로 저장되므로 목록의 위치가 number - 1
+	private static RevisionRepository repository(List<Revision> stored) {
+		RevisionRepository repository = mock(RevisionRepository.class);
+		when(repository.save(any(Revision.class))).thenAnswer(invocation -> {
+			Revision revision = invocation.getArgument(0);
+			stored.add(revision);
+			return revision;
+		});
+		when(repository.findTopByPostTypeAndPostIdOrderByNumberDesc(any(), any())).thenAnswer(
+				invocation -> stored.isEmpty() ? Optional.empty() : Optional.of(stored.get(stored.size() - 1)));
+		when(repository.findByPostTypeAndPostIdAndNumberBetweenOrderByNumberAsc(any(), any(), anyInt(), anyInt()))
+				.thenAnswer(invocation -> stored.subList(invocation.<Integer>getArgument(2) - 1,
+						Math.min(stored.size(), invocation.<Integer>getArgument(3))));
+		return repository;
+	}
+
+	private static String text(Random random, int size) {
+		StringBuilder text = new StringBuilder(size + 16);
+		while (text.length() < size) {
+			text.append(WORDS[random.nextInt(WORDS.length)]).append(random.nextInt(10) == 0 ? ".\n" : " ");
+		}
+		return text.substring(0, size);
+	}
+
+	// 문장 추가, 일부 삭제, 단어 교체 중 하나
+	private static String edit(Random random, String content) {
+		int at = random.nextInt(content.length() + 1);
+		switch (random.nextInt(3)) {
+		case 0:
+			return content.substring(0, at) + text(random, 20 + random.nextInt(80)) + content.substring(at);
+		case 1:
+			int end = Math.min(content.length(), at + 1 + random.nextInt(40));
+			return content.substring(0, at) + content.substring(end);
+		default:
+			int wordEnd = Math.min(content.length(), at + 6);
+			return content.substring(0, at) + WORDS[random.nextInt(WORDS.length)] + content.substring(wordEnd);
+		}
+	}
+}
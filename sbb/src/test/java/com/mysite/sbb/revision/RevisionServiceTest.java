@@ -0,0 +1,64 @@
+package com.mysite.sbb.revision;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+class RevisionServiceTest {
+
+	private final List<Revision> stored = new ArrayList<>();
+	private final RevisionService revisionService = new RevisionService(repository(this.stored));
+
+	@Test
+	void reconstructsEveryRevision() {
+		List<String> history = new ArrayList<>(List.of("hello world"));
+		for (int i = 0; i < 45; i++) {
+			String previous = history.get(history.size() - 1);
+			String edited = i % 3 == 0 ? previous + " more" : i % 3 == 1 ? "x" + previous.substring(2) : previous + "";
+			this.revisionService.recordEdit(PostType.ANSWER, 1, LocalDateTime.now(), null, previous, null, edited);
+			history.add(edited);
+		}
+		for (int number = 1; number <= history.size(); number++) {
+			assertEquals(history.get(number - 1),
+					this.revisionService.getRevision(PostType.ANSWER, 1, number).getContent());
+		}
+	}
+
+	// 본문 행이 없고 이전 content 컬럼도 비어 있어서 getContent() 가 null 인 글
+	@Test
+	void recordsMissingPreviousContentAsEmpty() {
+		this.revisionService.recordEdit(PostType.QUESTION, 1, LocalDateTime.now(), "subject", null, "subject",
+				"restored body");
+		this.revisionService.recordEdit(PostType.QUESTION, 1, LocalDateTime.now(), "subject", "restored body",
+				"subject", "restored body, edited");
+
+		assertEquals("", this.revisionService.getRevision(PostType.QUESTION, 1, 1).getContent());
+		assertEquals("restored body", this.revisionService.getRevision(PostType.QUESTION, 1, 2).getContent());
+		assertEquals("restored body, edited", this.revisionService.getRevision(PostType.QUESTION, 1, 3).getContent());
+	}
+
+	// number 가 1 부터 차례로 저장되므로 목록의 위치가 number - 1
+	private static RevisionRepository repository(List<Revision> stored) {
+		RevisionRepository repository = mock(RevisionRepository.class);
+		when(repository.save(any(Revision.class))).thenAnswer(invocation -> {
+			Revision revision = invocation.getArgument(0);
+			stored.add(revision);
+			return revision;
+		});
+		when(repository.findTopByPostTypeAndPostIdOrderByNumberDesc(any(), any())).thenAnswer(
+				invocation -> stored.isEmpty() ? Optional.empty() : Optional.of(stored.get(stored.size() - 1)));
+		when(repository.findByPostTypeAndPostIdAndNumberBetweenOrderByNumberAsc(any(), any(), anyInt(), anyInt()))
+				.thenAnswer(invocation -> stored.subList(invocation.<Integer>getArgument(2) - 1,
+						Math.min(stored.size(), invocation.<Integer>getArgument(3))));
+		return repository;
+	}
+}
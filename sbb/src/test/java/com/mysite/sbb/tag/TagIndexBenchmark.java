@@ -0,0 +1,87 @@
+package com.mysite.sbb.tag;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.test.util.ReflectionTestUtils;
+
+// 질문 100 만 개의 TagIndex 에서 태그 조합별 조회 시간 (교집합, 페이지 ID, facet 포함).
+// bitmap 은 합성 데이터로 put 해서 만들고 DB 는 사용하지 않는다.
+@Tag("benchmark")
+class TagIndexBenchmark {
+
+	private static final int QUESTIONS = 1_000_000;
+	private static final int TAGS = 5_000;
+	private static final int WARMUP = 50;
+	private static final int RUNS = 300;
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void queryLatency() {
+		TagIndex index = new TagIndex(null, null);
+		ReflectionTestUtils.setField(index, "facetLimit", 20);
+		Random random = new Random(42);
+		for (int id = 1; id <= QUESTIONS; id++) {
+			List<String> names = tags(random);
+			index.put(id, List.of(), names);
+			// 2% 는 삭제된 질문
+			if (random.nextInt(50) == 0) {
+				index.remove(id, names);
+			}
+		}
+		// rebuild 와 같은 상태로 맞춘다
+		Map<String, RoaringBitmap> tags = (Map<String, RoaringBitmap>) ReflectionTestUtils.getField(index, "tags");
+		tags.values().forEach(RoaringBitmap::runOptimize);
+		((RoaringBitmap) ReflectionTestUtils.getField(index, "live")).runOptimize();
+
+		System.out.printf("%-28s %6s %10s %12s %12s %12s%n", "tags", "page", "total", "median(us)", "p99(us)",
+				"max(us)");
+		run(index, List.of(), 0);
+		run(index, List.of("tag-0"), 0);
+		run(index, List.of("tag-0"), 10_000);
+		run(index, List.of("tag-0", "tag-1"), 0);
+		run(index, List.of("tag-0", "tag-1"), 1_000);
+		run(index, List.of("tag-0", "tag-5", "tag-20"), 0);
+		run(index, List.of("tag-200", "tag-400"), 0);
+		run(index, List.of("tag-4000"), 0);
+	}
+
+	private static void run(TagIndex index, List<String> names, int page) {
+		TagIndex.Result result = null;
+		for (int i = 0; i < WARMUP; i++) {
+			result = index.query(names, page, 10);
+		}
+		assertEquals(Math.max(0, Math.min(10, result.total() - (long) page * 10)), result.ids().size());
+		long[] nanos = new long[RUNS];
+		for (int i = 0; i < RUNS; i++) {
+			long start = System.nanoTime();
+			index.query(names, page, 10);
+			nanos[i] = System.nanoTime() - start;
+		}
+		Arrays.sort(nanos);
+		System.out.printf("%-28s %6d %10d %12.1f %12.1f %12.1f%n",
+				names.isEmpty() ? "(none)" : String.join(",", names), page, result.total(), nanos[RUNS / 2] / 1000.0,
+				nanos[RUNS * 99 / 100] / 1000.0, nanos[RUNS - 1] / 1000.0);
+	}
+
+	// 질문마다 1~5 개, 번호가 작은 태그일수록 자주 붙는다
+	private static List<String> tags(Random random) {
+		Set<String> names = new LinkedHashSet<>();
+		int count = 1 + random.nextInt(5);
+		while (names.size() < count) {
+			double r = random.nextDouble();
+			names.add("tag-" + (int) (r * r * r * TAGS));
+		}
+		return new ArrayList<>(names);
+	}
+}